@@ -0,0 +1,82 @@
+package benchmarks;
+
+import model.Movie;
+import model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import persistence.CatalogFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opening a site's catalog: mapping a binary catalog file and showing the first screen of
+ * titles, against building the same movies as objects in code.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogFileBenchmark {
+
+    /** Number of movies in the catalog. */
+    @Param({"1000", "100000"})
+    public int size;
+
+    /** Titles on the first screen of the movie list. */
+    private static final int FIRST_SCREEN = 20;
+
+    private Path file;
+    private CatalogFile open;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = Files.createTempFile("catalog", ".bin");
+        CatalogFile.write(file, List.of(new Room("R1", "Main", 120)), Datasets.movies(size));
+        open = CatalogFile.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int openFile() throws IOException {
+        return CatalogFile.open(file).getMovieCount();
+    }
+
+    @Benchmark
+    public int openAndShowFirstScreen() throws IOException {
+        CatalogFile catalog = CatalogFile.open(file);
+        int length = 0;
+        for (int i = 0; i < FIRST_SCREEN; i++) length += catalog.getMovieTitle(i).length();
+        return length;
+    }
+
+    @Benchmark
+    public int readTitle() {
+        return open.getMovieTitle(size / 2).length();
+    }
+
+    @Benchmark
+    public List<Movie> buildInCode() {
+        return Datasets.movies(size);
+    }
+}
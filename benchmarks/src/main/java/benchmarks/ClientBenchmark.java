@@ -0,0 +1,92 @@
+package benchmarks;
+
+import model.Client;
+import model.Credentials;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login path: username lookup in the client registry and password check,
+ * with the registry holding {@code size} accounts. The password check runs the
+ * configured hash, so its cost follows {@code -Dcinema.password.iterations}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClientBenchmark {
+
+    /** Number of registered clients. */
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    /** Usernames looked up, cycled through so lookups do not always hit the same entry. */
+    private String[] probes;
+    private String[] passwords;
+    private Client[] clients;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void fillRegistry() {
+        Client.loadSampleClients();
+        // One shared hash: hashing millions of passwords would dominate the setup.
+        String passwordHash = Credentials.hash(Datasets.PASSWORD);
+        for (int i = 0; i < size; i++) {
+            Client.registerClient(Client.createDetached(Datasets.username(i), passwordHash, Datasets.username(i) + "@example.com"));
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        probes = new String[Datasets.PROBES];
+        passwords = new String[Datasets.PROBES];
+        clients = new Client[Datasets.PROBES];
+        for (int p = 0; p < probes.length; p++) {
+            int i = random.nextInt(size);
+            probes[p] = Datasets.username(i);
+            passwords[p] = Datasets.PASSWORD;
+            clients[p] = Client.findClientByUsername(probes[p]);
+        }
+    }
+
+    private int nextProbe() {
+        next = (next + 1) & (Datasets.PROBES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public Client findClientByUsername() {
+        return Client.findClientByUsername(probes[nextProbe()]);
+    }
+
+    @Benchmark
+    public Client findMissingClient() {
+        return Client.findClientByUsername("missing-" + probes[nextProbe()]);
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        int p = nextProbe();
+        return clients[p].verifyPassword(passwords[p]);
+    }
+
+    /** Full login as done by the login view: lookup followed by the password check. */
+    @Benchmark
+    public boolean login() {
+        int p = nextProbe();
+        Client client = Client.findClientByUsername(probes[p]);
+        return client != null && client.verifyPassword(passwords[p]);
+    }
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import model.Movie;
+import model.Showtime;
+import model.ShowtimeColumnStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Showtime history held as {@link Showtime} objects against the {@link ShowtimeColumnStore}:
+ * the setup prints the memory each takes per row, measured as used heap after a full GC,
+ * and the benchmarks compare a sold-seats-per-movie report over both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ColumnStoreBenchmark {
+
+    /** Number of archived showtimes. */
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private List<Showtime> objects;
+    private ShowtimeColumnStore columns;
+
+    @Setup(Level.Trial)
+    public void load() {
+        List<Movie> movies = Datasets.movies(100);
+        long base = usedHeap();
+        objects = Datasets.showtimes(size, movies, 5);
+        for (int i = 0; i < size; i++) {
+            if (i % 3 > 0) objects.get(i).reserve(i % 60);
+        }
+        long objectBytes = usedHeap() - base;
+
+        base = usedHeap();
+        columns = new ShowtimeColumnStore();
+        columns.appendAll(objects);
+        long columnHeap = usedHeap() - base;
+        long columnBytes = columnHeap + columns.getOffHeapBytes();
+
+        System.out.printf("%nShowtime objects: %.1f bytes/row; column store: %.1f bytes/row "
+                        + "(%d heap + %d off-heap bytes), %.1fx smaller%n",
+                (double) objectBytes / size, (double) columnBytes / size, columnHeap,
+                columns.getOffHeapBytes(), (double) objectBytes / columnBytes);
+    }
+
+    /** Heap in use after the collector has run, so only reachable objects count. */
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        // A few rounds, since one System.gc() may leave objects queued for finalization.
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    @Benchmark
+    public Map<Movie, Long> soldSeatsFromObjects() {
+        Map<Movie, Long> sold = new HashMap<>();
+        for (Showtime showtime : objects) {
+            sold.merge(showtime.getMovie(), (long) (showtime.getTotalCapacity() - showtime.getAvailableSeats()), Long::sum);
+        }
+        return sold;
+    }
+
+    @Benchmark
+    public Map<Movie, Long> soldSeatsFromColumns() {
+        return columns.getSoldSeatsByMovie();
+    }
+}
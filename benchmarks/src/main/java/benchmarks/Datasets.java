@@ -0,0 +1,59 @@
+package benchmarks;
+
+import model.Movie;
+import model.Showtime;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic data shared by the benchmarks.
+ */
+final class Datasets {
+
+    private Datasets() { /* static helper, no instantiation */ }
+
+    /** Number of precomputed lookup keys per benchmark; a power of two. */
+    static final int PROBES = 1024;
+
+    /** First day of generated schedules. */
+    static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    static String username(int i) { return "user" + i; }
+
+    /** Password shared by all generated clients. */
+    static final String PASSWORD = "benchmark-pw";
+
+    /**
+     * @param count number of movies
+     * @return movies with varied durations
+     */
+    static List<Movie> movies(int count) {
+        List<Movie> movies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            movies.add(new Movie("Movie " + i, "Drama", (1 + i % 3) + ":" + (i * 7 % 60), "PG-13"));
+        }
+        return movies;
+    }
+
+    /**
+     * Creates unregistered showtimes without a room, spread over days and times in random order.
+     * @param count number of showtimes
+     * @param movies movies to assign round-robin
+     * @param seed random seed
+     * @return the showtimes
+     */
+    static List<Showtime> showtimes(int count, List<Movie> movies, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Showtime> showtimes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate date = FIRST_DAY.plusDays(random.nextInt(3650));
+            int minute = 10 * 60 + 15 * random.nextInt(54);
+            String time = String.format("%02d:%02d", minute / 60, minute % 60);
+            showtimes.add(new Showtime(movies.get(i % movies.size()), date, time, null));
+        }
+        return showtimes;
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import persistence.BookingJournal;
+import persistence.FsyncPolicy;
+import persistence.JournalRecord;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Durable bookings per second through the {@link BookingJournal}: 32 threads each append a
+ * seat change and wait until it is durable under the fsync policy, as a booking that is only
+ * confirmed after {@code Persistence.awaitDurable()} does. Vary the appenders with {@code -t}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class JournalBenchmark {
+
+    /** Fsync policy of the journal, as named in {@code cinema.journal.fsync}. */
+    @Param({"every-batch", "interval", "none"})
+    public String policy;
+
+    private static final int[] SEATS = {40, 41};
+
+    private Path dir;
+    private BookingJournal journal;
+    private final AtomicInteger version = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void openJournal() throws IOException {
+        dir = Files.createTempDirectory("journal");
+        journal = BookingJournal.open(dir.resolve(BookingJournal.FILE_NAME), FsyncPolicy.parse(policy), Duration.ofMillis(10));
+    }
+
+    @TearDown(Level.Trial)
+    public void closeJournal() throws IOException {
+        System.out.printf("%n%d records in %d batches, %d fsyncs%n",
+                journal.getRecordCount(), journal.getBatchCount(), journal.getSyncCount());
+        journal.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public long durableBooking() {
+        int v = version.incrementAndGet();
+        return journal.append(new JournalRecord.SeatsChanged(v % 1000, 2, SEATS, v, 100)).join();
+    }
+}
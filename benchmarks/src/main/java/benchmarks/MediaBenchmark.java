@@ -0,0 +1,55 @@
+package benchmarks;
+
+import model.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duration parsing and formatting of movies. {@code Movie.parseDurationToMinutes} is private,
+ * so it is measured through {@code setDuration}, which does nothing else.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MediaBenchmark {
+
+    private static final String[] DURATIONS = {"1:45", "2:10", "0:95", "3:00:00"};
+
+    private Movie movie;
+    private int tick;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        movie = Datasets.movies(1).get(0);
+    }
+
+    @Benchmark
+    public int parseDurationToMinutes() {
+        movie.setDuration(DURATIONS[tick++ & 3]);
+        return movie.getDurationMinutes();
+    }
+
+    @Benchmark
+    public String getFormattedDuration() {
+        return movie.getFormattedDuration();
+    }
+
+    @Benchmark
+    public Movie constructMovie() {
+        return new Movie("Benchmark", "Drama", DURATIONS[tick++ & 3], "PG");
+    }
+}
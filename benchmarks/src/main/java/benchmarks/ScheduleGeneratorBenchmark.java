@@ -0,0 +1,79 @@
+package benchmarks;
+
+import Helper.ScheduleGenerator;
+import model.Movie;
+import model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generating a month's schedule for a multiplex: 20 rooms over 30 days, with more demand
+ * than fits so every room-day is packed, on pools of {@code parallelism} workers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleGeneratorBenchmark {
+
+    private static final int ROOMS = 20;
+    private static final int DAYS = 30;
+
+    /** Workers in the fork/join pool. */
+    @Param({"1", "4", "8"})
+    public int parallelism;
+
+    /** Movies in the catalog. */
+    @Param({"20", "200"})
+    public int movies;
+
+    private ForkJoinPool pool;
+    private ScheduleGenerator generator;
+    private List<Movie> catalog;
+    private List<Room> rooms;
+    private Map<Movie, Integer> targets;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        generator = new ScheduleGenerator(LocalTime.of(10, 0), LocalTime.MIDNIGHT, 5, pool);
+        catalog = Datasets.movies(movies);
+        rooms = new ArrayList<>(ROOMS);
+        for (int i = 0; i < ROOMS; i++) rooms.add(new Room("R" + i, "Room " + i, 80 + i * 10));
+        // About five showings fit in a room-day; ask for three times that in total.
+        int perMovie = 3 * 5 * ROOMS * DAYS / movies;
+        targets = new HashMap<>();
+        for (Movie movie : catalog) targets.put(movie, perMovie);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public ScheduleGenerator.Result generateMonth() {
+        return generator.generate(catalog, rooms, targets, Datasets.FIRST_DAY, DAYS);
+    }
+}
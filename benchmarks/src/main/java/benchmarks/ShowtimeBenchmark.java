@@ -0,0 +1,89 @@
+package benchmarks;
+
+import model.Movie;
+import model.Showtime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Showtime construction (including time parsing in both supported formats) and
+ * {@code compareTo}-based sorting of {@code size} showtimes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShowtimeBenchmark {
+
+    /** Objects needed by the per-call benchmarks. */
+    @State(Scope.Thread)
+    public static class Single {
+        Movie movie;
+        LocalDate date;
+        Showtime showtime;
+        int tick;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            movie = Datasets.movies(1).get(0);
+            date = Datasets.FIRST_DAY;
+            showtime = new Showtime(movie, date, "10:00", null);
+        }
+    }
+
+    /** Unsorted showtimes to sort. */
+    @State(Scope.Benchmark)
+    public static class Unsorted {
+        @Param({"1000", "100000", "1000000", "10000000"})
+        public int size;
+
+        List<Showtime> showtimes;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            showtimes = Datasets.showtimes(size, Datasets.movies(100), 7);
+        }
+    }
+
+    @Benchmark
+    public Showtime construct24h(Single state) {
+        return new Showtime(state.movie, state.date, "19:30", null);
+    }
+
+    @Benchmark
+    public Showtime construct12h(Single state) {
+        return new Showtime(state.movie, state.date, "7:30 PM", null);
+    }
+
+    /** Re-parses the time through {@code setTime}, alternating formats. */
+    @Benchmark
+    public Object parseTime(Single state) {
+        state.showtime.setTime((state.tick++ & 1) == 0 ? "5:00 PM" : "17:15");
+        return state.showtime.getLocalTime();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Showtime> sortByCompareTo(Unsorted state) {
+        List<Showtime> copy = new ArrayList<>(state.showtimes);
+        Collections.sort(copy);
+        return copy;
+    }
+}
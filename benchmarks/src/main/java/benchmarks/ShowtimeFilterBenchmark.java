@@ -0,0 +1,76 @@
+package benchmarks;
+
+import model.Movie;
+import model.Showtime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Showtimes of one movie, as looked up by the client movie list when opening a movie:
+ * the original linear filter over all showtimes against the per-movie index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShowtimeFilterBenchmark {
+
+    /** Number of registered showtimes. */
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    /** Number of movies the showtimes are spread over. */
+    @Param({"100"})
+    public int movieCount;
+
+    private List<Movie> movies;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void register() {
+        movies = Datasets.movies(movieCount);
+        for (Showtime showtime : Datasets.showtimes(size, movies, 11)) Showtime.register(showtime);
+    }
+
+    @TearDown(Level.Trial)
+    public void unregister() {
+        for (Showtime showtime : List.copyOf(Showtime.getAllShowtimes())) Showtime.unregister(showtime);
+    }
+
+    private Movie nextMovie() {
+        next = (next + 1) % movies.size();
+        return movies.get(next);
+    }
+
+    /** The filter the client movie list used before the per-movie index existed. */
+    @Benchmark
+    public List<Showtime> linearFilter() {
+        Movie movie = nextMovie();
+        return Showtime.getAllShowtimes().stream()
+                .filter(st -> st.getMovie().equals(movie))
+                .collect(Collectors.toList());
+    }
+
+    /** The lookup the client movie list performs now. */
+    @Benchmark
+    public List<Showtime> indexedLookup() {
+        return List.copyOf(Showtime.getShowtimesForMovie(nextMovie()));
+    }
+}
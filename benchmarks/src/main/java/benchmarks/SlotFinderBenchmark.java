@@ -0,0 +1,89 @@
+package benchmarks;
+
+import model.Movie;
+import model.Showtime;
+import model.SlotFinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Free start times for a new showing, as the schedule editor asks for them: 20 rooms with a
+ * busy week of registered showings (gaps left between some of them), queried one day at a
+ * time. {@code historyWeeks} adds earlier weeks to the same rooms, which the per-room index
+ * should skip. The editor needs an answer well under 10 ms.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlotFinderBenchmark {
+
+    private static final int ROOMS = 20;
+    private static final int DAYS = 7;
+    private static final int MOVIES = 20;
+
+    /** Weeks of past showings registered before the queried week. */
+    @Param({"0", "52"})
+    public int historyWeeks;
+
+    private final SlotFinder finder = new SlotFinder();
+    private final List<String> rooms = new ArrayList<>(ROOMS);
+    private Movie movie;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void register() {
+        List<Movie> movies = Datasets.movies(MOVIES);
+        movie = movies.get(0);
+        for (int r = 0; r < ROOMS; r++) rooms.add("R" + r);
+        int buffer = Showtime.getCleaningBufferMinutes();
+        int showings = 0;
+        for (int day = -7 * historyWeeks; day < DAYS; day++) {
+            LocalDate date = Datasets.FIRST_DAY.plusDays(day);
+            for (int r = 0; r < ROOMS; r++) {
+                // Staggered openings, and a 90-minute gap after every third showing.
+                int start = 10 * 60 + Math.floorMod(r + day, 4) * 15;
+                for (int i = 0; start <= 23 * 60; i++) {
+                    Movie shown = movies.get(Math.floorMod(r + day + i, MOVIES));
+                    String time = String.format("%02d:%02d", start / 60, start % 60);
+                    Showtime.register(new Showtime(shown, date, time, rooms.get(r), 100));
+                    showings++;
+                    int end = start + shown.getDurationMinutes() + buffer + (i % 3 == 2 ? 90 : 0);
+                    start = (end + 4) / 5 * 5;
+                }
+            }
+        }
+        System.out.printf("%n%d showings registered%n", showings);
+    }
+
+    @TearDown(Level.Trial)
+    public void unregister() {
+        for (Showtime showtime : List.copyOf(Showtime.getAllShowtimes())) Showtime.unregister(showtime);
+    }
+
+    /** Free times per room for one day of the busy week. */
+    @Benchmark
+    public Map<String, List<LocalTime>> findFreeSlots() {
+        return finder.findFreeSlots(movie, Datasets.FIRST_DAY.plusDays(next++ % DAYS), rooms);
+    }
+}
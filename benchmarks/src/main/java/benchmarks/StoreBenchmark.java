@@ -0,0 +1,144 @@
+package benchmarks;
+
+import model.Movie;
+import model.Showtime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import persistence.FileStore;
+import persistence.FsyncPolicy;
+import persistence.JdbcStore;
+import persistence.MemoryStore;
+import persistence.ShowtimeRow;
+import persistence.Store;
+import persistence.WriteBehindListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Showtime rows through each storage backend: saving one row, saving one row and waiting until
+ * it is durable (as a write-through booking must), saving a batch, and reading by id and by
+ * movie; and the cost a booking pays when the store is behind a {@link WriteBehindListener} instead.
+ * <p>
+ * Compare backends on {@code durableSave}: {@code saveOne} only measures the call, which the
+ * file store answers by queuing a log frame while JDBC commits the row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StoreBenchmark {
+
+    /** Storage backend, as named in {@code cinema.store}. */
+    @Param({"memory", "file", "jdbc"})
+    public String backend;
+
+    /** Showtime rows in the store. */
+    @Param({"10000"})
+    public int size;
+
+    /** Rows per {@code saveAll} call. */
+    private static final int BATCH = 1000;
+    private static final int MOVIES = 100;
+
+    private Path dir;
+    private Store store;
+    private List<ShowtimeRow> batch;
+    private List<Showtime> showtimes;
+    private WriteBehindListener writeBehind;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void openStore() throws IOException {
+        dir = Files.createTempDirectory("store");
+        store = switch (backend) {
+            case "memory" -> new MemoryStore();
+            case "file" -> FileStore.open(dir, FsyncPolicy.EVERY_BATCH);
+            case "jdbc" -> JdbcStore.open("jdbc:h2:file:" + dir.resolve("cinema"));
+            default -> throw new IllegalArgumentException("Unknown backend: " + backend);
+        };
+        List<ShowtimeRow> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) rows.add(row(i, 0));
+        store.showtimes().saveAll(rows);
+        store.flush();
+        batch = rows.subList(0, BATCH);
+
+        List<Movie> movies = Datasets.movies(MOVIES);
+        showtimes = Datasets.showtimes(size, movies, 42);
+        writeBehind = new WriteBehindListener(store, 500, 10_000, Duration.ofSeconds(1));
+        writeBehind.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeStore() throws IOException {
+        writeBehind.close();
+        store.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(file);
+        }
+    }
+
+    private static ShowtimeRow row(int id, int version) {
+        return new ShowtimeRow(id, "M" + id % MOVIES, Datasets.FIRST_DAY.plusDays(id % 365), "19:30", "R1",
+                120, version, 120 - version % 120, new long[2]);
+    }
+
+    @Benchmark
+    public int saveOne() {
+        int id = next++ % size;
+        store.showtimes().save(row(id, next));
+        return id;
+    }
+
+    /** One row saved and flushed: for the file store this waits for the fsync of its log batch. */
+    @Benchmark
+    public int durableSave() throws IOException {
+        int id = next++ % size;
+        store.showtimes().save(row(id, next));
+        store.flush();
+        return id;
+    }
+
+    @Benchmark
+    public int seatChangeWriteBehind() {
+        int id = next++ % size;
+        writeBehind.seatsChanged(showtimes.get(id), 1, null, next, 0);
+        return id;
+    }
+
+    @Benchmark
+    public int saveBatch() {
+        store.showtimes().saveAll(batch);
+        return batch.size();
+    }
+
+    @Benchmark
+    public ShowtimeRow findById() {
+        return store.showtimes().find((long) (next++ % size));
+    }
+
+    @Benchmark
+    public int findByMovie() {
+        return store.showtimes().findByMovie("M" + next++ % MOVIES).size();
+    }
+}
@@ -1,29 +1,37 @@
 package Controller;
 
 import model.Movie;
-import Helper.SampleDataHelper;
+import Helper.CatalogService;
+import Helper.ViewSwitcher;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Controller class for the main cinema view.
  * This class manages the display of movies in a grid layout and handles
  * user interactions such as adding, deleting, and viewing movie details.
+ * The grid is updated card by card as movies are added or removed, and very large
+ * catalogs are shown in a virtualized tile view instead.
  *
  * <p>This controller demonstrates:
  * <ul>
@@ -36,7 +44,7 @@ import java.util.List;
  * @version 1.0
  * @since 2024-11-24
  */
-public class CinemaController {
+public class CinemaController implements ViewSwitcher.Resettable {
 
     /**
      * The grid pane that displays movie cards in a grid layout.
@@ -59,11 +67,49 @@ public class CinemaController {
     @FXML
     private Button deleteButton;
 
+    /**
+     * Scroll pane hosting the grid, or the tile view for very large catalogs.
+     * This is injected by FXML.
+     */
+    @FXML
+    private ScrollPane moviesScroll;
+
+    /**
+     * Number of cards per grid row.
+     */
+    private static final int COLUMNS = 3;
+
+    /**
+     * Above this many movies the grid of nodes is replaced by a virtualized tile view
+     * that only creates cards for the rows on screen.
+     */
+    private static final int VIRTUALIZE_THRESHOLD = 300;
+
     /**
      * The list of all movies currently in the cinema system.
-     * This demonstrates encapsulation of the data model.
+     * Changes to this list are applied to the grid one card at a time.
+     */
+    private final ObservableList<Movie> movies = FXCollections.observableArrayList();
+
+    /**
+     * Card node of every movie shown in the grid (unused in tile view).
+     */
+    private final Map<Movie, VBox> cards = new HashMap<>();
+
+    /**
+     * Row indexes backing the virtualized tile view; row {@code r} shows movies {@code 3r .. 3r+2}.
+     */
+    private final ObservableList<Integer> tileRows = FXCollections.observableArrayList();
+
+    /**
+     * Virtualized view used instead of the grid for large catalogs; created on demand.
+     */
+    private ListView<Integer> tileView;
+
+    /**
+     * Catalog version the displayed list was last synchronized with.
      */
-    private List<Movie> movies = new ArrayList<>();
+    private long catalogVersion = -1;
 
     /**
      * The currently selected movie for operations like delete or view details.
@@ -73,51 +119,142 @@ public class CinemaController {
     /**
      * Initializes the controller after FXML injection is complete.
      * This method is automatically called by JavaFX after the FXML file has been loaded.
-     * It loads sample data and displays the initial list of movies.
+     * It binds the grid to the movie list and fills it from the shared catalog.
      *
-     * <p>Demonstrates the use of helper classes for data initialization
+     * <p>Demonstrates the use of a shared service for data access
      * and proper MVC separation of concerns.
      */
     @FXML
     public void initialize() {
-        // Load sample data when the app starts
-        SampleDataHelper.Data data = SampleDataHelper.load();
+        movies.addListener(this::onMoviesChanged);
+        syncWithCatalog(CatalogService.getSnapshot());
+    }
 
-        // Use the loaded movies
-        this.movies = data.getMovies();
+    /**
+     * Called when the cached manager view is shown again.
+     * Clears the selection and re-reads the catalog if it changed meanwhile.
+     */
+    @Override
+    public void resetView() {
+        selectedMovie = null;
+        syncWithCatalog(CatalogService.getSnapshot());
+    }
 
-        // Display them in the grid
-        loadMovies();
+    /**
+     * Replaces the displayed movies with the snapshot's, unless it is the version already shown.
+     *
+     * @param snapshot catalog snapshot to display
+     */
+    private void syncWithCatalog(CatalogService.Snapshot snapshot) {
+        if (snapshot.getVersion() == catalogVersion) return;
+        catalogVersion = snapshot.getVersion();
+        movies.setAll(snapshot.getMovies());
+    }
 
-        // Note: Additional data is available if needed:
-        // data.getRooms()     -> List<Room>
-        // data.getClients()   -> List<Client>
-        // data.getShowtimes() -> List<Showtime>
+    /**
+     * Applies changes of the movie list to the display.
+     * In grid mode only the added or removed cards are created or dropped, and only the
+     * cards after the first changed position are moved to their new cell.
+     *
+     * @param change the list change
+     */
+    private void onMoviesChanged(ListChangeListener.Change<? extends Movie> change) {
+        if (movies.size() > VIRTUALIZE_THRESHOLD) {
+            showTileView();
+            return;
+        }
+        if (tileView != null && moviesScroll.getContent() == tileView) {
+            showGrid();
+            return;
+        }
+        int firstAffected = movies.size();
+        while (change.next()) {
+            firstAffected = Math.min(firstAffected, change.getFrom());
+            for (Movie removed : change.getRemoved()) {
+                VBox card = cards.remove(removed);
+                if (card != null) moviesGrid.getChildren().remove(card);
+            }
+            for (Movie added : change.getAddedSubList()) {
+                VBox card = createMovieCard(added);
+                cards.put(added, card);
+                moviesGrid.getChildren().add(card);
+            }
+        }
+        reflow(firstAffected);
     }
 
     /**
-     * Loads and displays all movies in the grid layout.
-     * This method clears the current grid and populates it with movie cards,
-     * arranging them in a 3-column grid layout.
+     * Moves the cards from the given list position onwards to their grid cell.
      *
-     * <p>This is a private helper method that demonstrates encapsulation
-     * of the display logic.
+     * @param from first list position whose cell may have changed
      */
-    private void loadMovies() {
-        moviesGrid.getChildren().clear();
-        int col = 0;
-        int row = 0;
+    private void reflow(int from) {
+        for (int i = from; i < movies.size(); i++) {
+            GridPane.setConstraints(cards.get(movies.get(i)), i % COLUMNS, i / COLUMNS);
+        }
+    }
 
+    /**
+     * Rebuilds the grid of cards from scratch and shows it; used when leaving tile view.
+     */
+    private void showGrid() {
+        cards.clear();
+        moviesGrid.getChildren().clear();
         for (Movie movie : movies) {
-            VBox movieCard = createMovieCard(movie);
-            moviesGrid.add(movieCard, col, row);
+            VBox card = createMovieCard(movie);
+            cards.put(movie, card);
+            moviesGrid.getChildren().add(card);
+        }
+        reflow(0);
+        moviesScroll.setFitToHeight(false);
+        moviesScroll.setContent(moviesGrid);
+    }
 
-            col++;
-            if (col > 2) {
-                col = 0;
-                row++;
-            }
+    /**
+     * Shows the virtualized tile view, dropping the grid's card nodes.
+     * Only the row count changes here; visible rows are redrawn from the movie list.
+     */
+    private void showTileView() {
+        if (tileView == null) tileView = createTileView();
+        if (moviesScroll.getContent() != tileView) {
+            cards.clear();
+            moviesGrid.getChildren().clear();
+            moviesScroll.setFitToHeight(true);
+            moviesScroll.setContent(tileView);
         }
+        int rows = (movies.size() + COLUMNS - 1) / COLUMNS;
+        if (tileRows.size() > rows) tileRows.remove(rows, tileRows.size());
+        for (int row = tileRows.size(); row < rows; row++) tileRows.add(row);
+        tileView.refresh();
+    }
+
+    /**
+     * Creates the virtualized tile view. Each cell renders one row of cards,
+     * so card nodes exist only for the rows currently on screen.
+     *
+     * @return list view over row indexes
+     */
+    private ListView<Integer> createTileView() {
+        ListView<Integer> view = new ListView<>(tileRows);
+        view.setCellFactory(list -> new ListCell<>() {
+            private final HBox row = new HBox(moviesGrid.getHgap());
+
+            @Override
+            protected void updateItem(Integer rowIndex, boolean empty) {
+                super.updateItem(rowIndex, empty);
+                if (empty || rowIndex == null) {
+                    setGraphic(null);
+                    return;
+                }
+                row.getChildren().clear();
+                int start = rowIndex * COLUMNS;
+                for (int i = start; i < Math.min(start + COLUMNS, movies.size()); i++) {
+                    row.getChildren().add(createMovieCard(movies.get(i)));
+                }
+                setGraphic(row);
+            }
+        });
+        return view;
     }
 
     /**
@@ -172,9 +309,9 @@ public class CinemaController {
 
             alert.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
+                    catalogVersion = CatalogService.removeMovie(selectedMovie).getVersion();
                     movies.remove(selectedMovie);
                     selectedMovie = null;
-                    loadMovies();
                 }
             });
         } else {
@@ -196,21 +333,22 @@ public class CinemaController {
      */
     private void showAddMovieDialog() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/finalprojectoop/movie-form.fxml"));
-            Scene scene = new Scene(loader.load());
+            ViewSwitcher.CachedView view = ViewSwitcher.getView(ViewSwitcher.MOVIE_FORM_VIEW);
 
-            MovieFormController controller = loader.getController();
+            MovieFormController controller = view.getController();
             java.util.function.Consumer<model.Movie> onSave = m -> {
+                catalogVersion = CatalogService.addMovie(m).getVersion();
                 movies.add(m);
-                loadMovies();
             };
             controller.setOnSave(onSave);
 
             Stage dialog = new Stage();
             dialog.initModality(Modality.APPLICATION_MODAL);
             dialog.setTitle("Add Movie");
-            dialog.setScene(scene);
+            dialog.setScene(view.getScene());
             dialog.showAndWait();
+            // Detach the cached scene so the next dialog window can show it.
+            dialog.setScene(null);
         } catch (IOException e) {
             e.printStackTrace();
             showError("Error", "Could not load movie form: " + e.getMessage());
@@ -225,17 +363,18 @@ public class CinemaController {
      */
     private void showMovieDetails(Movie movie) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/finalprojectoop/showtime-form.fxml"));
-            Scene scene = new Scene(loader.load());
+            ViewSwitcher.CachedView view = ViewSwitcher.getView(ViewSwitcher.SHOWTIME_FORM_VIEW);
 
-            ShowtimeFormController controller = loader.getController();
+            ShowtimeFormController controller = view.getController();
             controller.setMovie(movie);
 
             Stage dialog = new Stage();
             dialog.initModality(Modality.APPLICATION_MODAL);
             dialog.setTitle("Movie Details - Showtime");
-            dialog.setScene(scene);
+            dialog.setScene(view.getScene());
             dialog.showAndWait();
+            // Detach the cached scene so the next dialog window can show it.
+            dialog.setScene(null);
         } catch (IOException e) {
             e.printStackTrace();
             showError("Error", "Could not load showtime form: " + e.getMessage());
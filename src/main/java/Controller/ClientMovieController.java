@@ -3,17 +3,20 @@ package Controller;
 import Helper.ViewSwitcher;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.scene.control.Button;
 import javafx.stage.Stage;
 import model.Movie;
 import model.Showtime;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
 
 
-public class ClientMovieController {
+public class ClientMovieController implements ViewSwitcher.Resettable {
 
     // --- FXML Labels mapped from the provided FXML ---
     @FXML private Label movieNameLabel;
@@ -23,25 +26,62 @@ public class ClientMovieController {
     @FXML private Label roomNumberLabel;
 
     // --- FXML Components ---
-    @FXML private ListView<String> clientShowTimeList;
+    @FXML private ListView<Showtime> clientShowTimeList;
     @FXML private Button clientMovieBackButton;
 
+    /**
+     * Display text of showtimes that have been on screen, computed the first time a cell shows them.
+     */
+    private final Map<Showtime, String> displayText = new IdentityHashMap<>();
+
     /**
      * Initializes the controller after its root element has been completely processed.
-     * Sets up the action listener for the back button.
+     * Sets up the action listener for the back button and the showtime cell factory.
      */
     @FXML
     public void initialize() {
         clientMovieBackButton.setOnAction(event -> BackButtonClick());
+        clientShowTimeList.setPlaceholder(new Label("No showtimes available for this movie."));
+        // Cells format only the showtimes that are visible; the list view recycles cells while scrolling.
+        clientShowTimeList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(Showtime showtime, boolean empty) {
+                super.updateItem(showtime, empty);
+                setText(empty || showtime == null ? null : displayText.computeIfAbsent(showtime, ClientMovieController::describe));
+            }
+        });
+    }
+
+    /**
+     * @param showtime showtime to describe
+     * @return text shown in the showtime list
+     */
+    private static String describe(Showtime showtime) {
+        return showtime.getFormattedDateTime(Locale.getDefault()) + " in " + showtime.getRoom();
+    }
+
+    /**
+     * Called when the cached detail view is shown again; clears the previous movie until
+     * {@link #setMovie} fills in the new one.
+     */
+    @Override
+    public void resetView() {
+        movieNameLabel.setText("");
+        movieGenreLabel.setText("");
+        movieDurrationLabel.setText("");
+        movieRatedLabel.setText("");
+        roomNumberLabel.setText("");
+        displayText.clear();
+        clientShowTimeList.getItems().clear();
     }
 
     /**
      * Sets the movie and its associated showtimes to be displayed in the view.
      * This method is called by the parent controller (`ClientMovieListController`).
      * @param movie The selected Movie object.
-     * @param showtimes The list of Showtime objects for this movie.
+     * @param showtimes The Showtime objects for this movie.
      */
-    public void setMovie(Movie movie, List<Showtime> showtimes) { // ADDED METHOD
+    public void setMovie(Movie movie, Collection<Showtime> showtimes) { // ADDED METHOD
 
         movieNameLabel.setText("Title: " + movie.getTitle());
         movieGenreLabel.setText("Genre: " + movie.getGenre());
@@ -49,16 +89,13 @@ public class ClientMovieController {
         movieRatedLabel.setText("Rating: " + movie.getRating());
 
 
-        if (showtimes != null && !showtimes.isEmpty()) {
-
-            List<String> showtimeStrings = showtimes.stream()
-                    .map(st -> st.getFormattedDateTime() + " in " + st.getRoom())
-                    .collect(Collectors.toList());
-
-            clientShowTimeList.getItems().setAll(showtimeStrings);
+        displayText.clear();
+        if (showtimes != null) {
+            clientShowTimeList.getItems().setAll(showtimes);
         } else {
-            clientShowTimeList.getItems().setAll("No showtimes available for this movie.");
+            clientShowTimeList.getItems().clear();
         }
+        clientShowTimeList.scrollTo(0);
 
 
         roomNumberLabel.setText("");
@@ -1,11 +1,10 @@
 package Controller;
 
 
+import Helper.BackgroundTasks;
+import Helper.CatalogService;
 import Helper.ViewSwitcher;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ListView;
@@ -14,8 +13,8 @@ import model.Movie;
 import model.Showtime;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * The {@code ClientMovieListController} class is the controller for the client's
@@ -23,7 +22,7 @@ import java.util.stream.Collectors;
  * It handles displaying the list of available movies, allowing selection, and navigating
  * to the details view or exiting the application.
  */
-public class ClientMovieListController {
+public class ClientMovieListController implements ViewSwitcher.Resettable {
 
     /** ListView displaying the available {@code Movie} objects for the client to select from. */
     @FXML
@@ -40,36 +39,23 @@ public class ClientMovieListController {
     /** Defines the FXML file path for the detailed movie view (e.g., /ClientMovie-view.fxml). */
     public static final String DETAIL_VIEW_FXML = ViewSwitcher.DETAIL_VIEW_FXML; // Adjust path as needed
 
-    /**
-     * Sample Movie object used for demonstration purposes.
-     */
-    private Movie sampleMovie;
-
     /**
      * Initializes the controller after FXML injection is complete.
-     * Populates the movie list with a sample movie and creates sample showtimes.
+     * Populates the movie list from the shared catalog.
      */
     @FXML
     public void initialize() {
+        clientMovieList.getItems().setAll(CatalogService.getSnapshot().getMovies());
+    }
 
-        sampleMovie = new Movie("The Code Whisperer", "Tech-Thriller", "01:45:00", "PG-13");
-
-
-        clientMovieList.getItems().add(sampleMovie);
-
-
-        new Showtime(sampleMovie, java.time.LocalDate.now().plusDays(1), "5:00 PM", "Room 2");
-        new Showtime(sampleMovie, java.time.LocalDate.now().plusDays(2), "8:30 PM", "Room 4");
-
-
-        Movie movie2 = new Movie("The Champlains Brains", "Sci-Fi/Drama", "02:10:00", "PG");
-
-
-        clientMovieList.getItems().add(movie2);
-
-
-        new Showtime(movie2, java.time.LocalDate.now().plusDays(1), "7:30 PM", "Room 1");
-        new Showtime(movie2, java.time.LocalDate.now().plusDays(3), "4:00 PM", "Room 3");
+    /**
+     * Called when the cached list view is shown again.
+     * Clears the selection and refreshes the movies from the catalog.
+     */
+    @Override
+    public void resetView() {
+        clientMovieList.getSelectionModel().clearSelection();
+        clientMovieList.getItems().setAll(CatalogService.getSnapshot().getMovies());
     }
     /**
      * Handles the action when the "View Movie Details" button is clicked.
@@ -81,39 +67,40 @@ public class ClientMovieListController {
         Movie selectedMovie = clientMovieList.getSelectionModel().getSelectedItem();
 
         if (selectedMovie != null) {
-            try {
-
-                FXMLLoader loader = new FXMLLoader(getClass().getResource(DETAIL_VIEW_FXML));
-                Parent root = loader.load();
-
-
-                ClientMovieController controller = loader.getController();
-
-                /**
-                 * Filters the global list of all showtimes (stored statically in model.Showtime)
-                 * to find only those scheduled for the selected movie.
-                 */
-                List<Showtime> movieShowtimes = Showtime.getAllShowtimes().stream()
-                        .filter(st -> st.getMovie().equals(selectedMovie))
-                        .collect(Collectors.toList());
-
-
-                controller.setMovie(selectedMovie, movieShowtimes);
-
-
-                Stage stage = (Stage) ClientMovieViewButton.getScene().getWindow();
-                stage.setScene(new Scene(root));
-                stage.show();
-
-            } catch (IOException e) {
-                e.printStackTrace();
-                showAlert("Error", "Could not load movie details view: " + e.getMessage());
-            }
+            /*
+             * Looks up the showtimes scheduled for the selected movie in the
+             * per-movie index kept by model.Showtime, off the FX thread.
+             */
+            BackgroundTasks.submit(() -> List.copyOf(Showtime.getShowtimesForMovie(selectedMovie)),
+                    movieShowtimes -> showMovieDetails(selectedMovie, movieShowtimes),
+                    error -> showAlert("Error", "Could not load showtimes: " + error.getMessage()),
+                    ClientMovieViewButton, clientMovieList);
         } else {
             showAlert("Selection Required", "Please select a movie.");
         }
     }
 
+    /**
+     * Loads the detail view and switches the current stage's scene to it.
+     * @param selectedMovie movie to show
+     * @param movieShowtimes its showtimes
+     */
+    private void showMovieDetails(Movie selectedMovie, Collection<Showtime> movieShowtimes) {
+        try {
+            ViewSwitcher.CachedView view = ViewSwitcher.getView(DETAIL_VIEW_FXML);
+
+            ClientMovieController controller = view.getController();
+            controller.setMovie(selectedMovie, movieShowtimes);
+
+            Stage stage = (Stage) ClientMovieViewButton.getScene().getWindow();
+            stage.setScene(view.getScene());
+            stage.show();
+        } catch (IOException e) {
+            e.printStackTrace();
+            showAlert("Error", "Could not load movie details view: " + e.getMessage());
+        }
+    }
+
     /**
      * Handles the action when the "Exit" button is clicked.
      * It retrieves the current stage and closes the window.
@@ -1,7 +1,9 @@
 package Controller;
 
+import Helper.AppBootstrap;
+import Helper.BackgroundTasks;
 import Helper.ViewSwitcher;
-import Helper.SampleDataHelper;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextField;
 import javafx.scene.control.PasswordField;
@@ -9,10 +11,13 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
 import javafx.scene.control.Hyperlink;
+import javafx.scene.control.ProgressIndicator;
 import javafx.stage.Stage;
+import model.Credentials;
 import model.Manager;
 import model.Client;
-import java.util.List;
+
+import java.util.concurrent.CompletionException;
 
 /**
  * The {@code LoginController} class manages the user login interface and authentication process.
@@ -20,7 +25,7 @@ import java.util.List;
  * {@code Manager} and {@code Client} models, and navigates the user to the appropriate
  * application view upon successful login.
  */
-public class LoginController {
+public class LoginController implements ViewSwitcher.Resettable {
 
     /** The text field where the user enters their username. */
     @FXML
@@ -38,36 +43,64 @@ public class LoginController {
     @FXML
     private Hyperlink signUpLink;
 
+    /** Spinner shown while the credentials are being checked. */
+    @FXML
+    private ProgressIndicator loginProgress;
+
     /** Instance of the application's {@code Manager} model for manager authentication. */
     private Manager manager = new Manager();
 
+    /** Result of a credential check. */
+    private enum Role { MANAGER, CLIENT, NONE }
+
+    /** Credential check in progress, or {@code null}. */
+    private Task<Role> pendingLogin;
+
     /**
      * Handles the action when the Login button is clicked.
-     * It retrieves the entered credentials, attempts to authenticate as a Manager first,
-     * then as a Client. Shows an alert for successful login or failure.
+     * It retrieves the entered credentials and checks them in the background, as a Manager
+     * first, then as a Client (waiting for the accounts to finish loading if needed).
+     * Shows an alert for successful login or failure.
      */
     @FXML
     private void OnLoginButtonClick() {
         String username = usernameTextField.getText();
         String password = passwordTextField.getText();
 
-        if (manager.getUsername().equals(username) && manager.verifyPassword(password)) {
-            showAlert("Login Successful", "You are logged in as Manager.");
+        BackgroundTasks.cancel(pendingLogin);
+        pendingLogin = BackgroundTasks.submit(() -> authenticate(username, password), role -> {
+            pendingLogin = null;
+            switch (role) {
+                case MANAGER -> {
+                    showAlert("Login Successful", "You are logged in as Manager.");
+                    navigateToManagerView();
+                }
+                case CLIENT -> {
+                    showAlert("Login Successful", "You are logged in as Client: " + username);
+                    navigateToClientMovieList();
+                }
+                default -> showAlert("Login Failed", "Incorrect username or password.");
+            }
+        }, error -> {
+            pendingLogin = null;
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            showAlert("Login Failed", "Could not check your credentials: " + cause.getMessage());
+        }, loginButton, signUpLink, loginProgress);
+    }
 
-            navigateToManagerView();
-            return;
+    /**
+     * Checks the credentials; runs on a background thread.
+     * @param username entered username
+     * @param password entered password
+     * @return the role the credentials belong to
+     */
+    private Role authenticate(String username, String password) {
+        if (manager.getUsername().equals(username)) {
+            return Credentials.verifyAsync(manager, password).join() ? Role.MANAGER : Role.NONE;
         }
-
+        AppBootstrap.awaitClients();
         Client loggedInClient = Client.findClientByUsername(username);
-
-        if (loggedInClient != null && loggedInClient.verifyPassword(password)) {
-            showAlert("Login Successful", "You are logged in as Client: " + username);
-
-            navigateToClientMovieList();
-        }
-        else {
-            showAlert("Login Failed", "Incorrect username or password.");
-        }
+        return Credentials.verifyAsync(loggedInClient, password).join() ? Role.CLIENT : Role.NONE;
     }
 
     /**
@@ -76,14 +109,21 @@ public class LoginController {
      */
     @FXML
     private void initialize() {
-
-        Client.loadSampleClients();
-
-
         loginButton.setOnAction(event -> OnLoginButtonClick());
         signUpLink.setOnAction(event -> OnSignUpLinkClick());
     }
 
+    /**
+     * Called when the cached login view is shown again; clears the entered credentials.
+     */
+    @Override
+    public void resetView() {
+        BackgroundTasks.cancel(pendingLogin);
+        pendingLogin = null;
+        usernameTextField.clear();
+        passwordTextField.clear();
+    }
+
     /**
      * Handles the action when the Sign Up hyperlink is clicked.
      * It uses the {@code ViewSwitcher} to navigate to the user registration view.
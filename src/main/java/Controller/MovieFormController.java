@@ -1,6 +1,7 @@
 package Controller;
 
 // Use model.Movie fully-qualified in this controller to avoid import ambiguity
+import Helper.ViewSwitcher;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
@@ -23,7 +24,7 @@ import java.util.function.Consumer;
  * @version 1.0
  * @since 2024-11-24
  */
-public class MovieFormController {
+public class MovieFormController implements ViewSwitcher.Resettable {
 
     /**
      * Text field for entering the movie title.
@@ -107,6 +108,19 @@ public class MovieFormController {
         pgRating.setSelected(true);
     }
 
+    /**
+     * Called when the cached form is opened again.
+     * Clears the fields, restores the default rating and drops the previous callback.
+     */
+    @Override
+    public void resetView() {
+        titleField.clear();
+        genreField.clear();
+        durationField.clear();
+        pgRating.setSelected(true);
+        onSave = null;
+    }
+
     /**
      * Sets the callback function to be called when a movie is saved.
      *
@@ -1,14 +1,23 @@
 package Controller;
 
+import Helper.BackgroundTasks;
+import Helper.ViewSwitcher;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import model.Movie;
 import model.Showtime;
+import model.SlotFinder;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 /**
  * Controller class for the showtime form dialog.
@@ -26,7 +35,7 @@ import java.util.List;
  * @version 1.0
  * @since 2024-11-24
  */
-public class ShowtimeFormController {
+public class ShowtimeFormController implements ViewSwitcher.Resettable {
 
     /**
      * Label displaying the movie title.
@@ -144,19 +153,81 @@ public class ShowtimeFormController {
      */
     private List<Showtime> showtimes = new ArrayList<>();
 
+    /**
+     * Suggests start times that fit the existing schedule of the rooms.
+     */
+    private final SlotFinder slotFinder = new SlotFinder();
+
+    /**
+     * Formats suggested start times the same way the time strings are parsed by {@link Showtime}.
+     */
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("h:mm a", Locale.US);
+
+    /**
+     * Free start times per room label for the currently selected date.
+     */
+    private Map<String, List<LocalTime>> freeSlots = Map.of();
+
     /**
      * Initializes the controller after FXML injection is complete.
-     * Populates the time combo box with available showtime options.
+     * The time combo box is filled from the schedule once a date is picked,
+     * and rooms that are busy at the chosen time are disabled.
      */
     @FXML
     public void initialize() {
-        timeComboBox.getItems().addAll(
-            "11:30 A.M",
-            "2:00 PM",
-            "5:00 PM",
-            "8:30 PM",
-            "11:30 PM"
-        );
+        datePicker.valueProperty().addListener((obs, oldDate, newDate) -> refreshTimeSlots());
+        timeComboBox.valueProperty().addListener((obs, oldTime, newTime) -> refreshRoomAvailability());
+    }
+
+    /**
+     * Recomputes the free start times for the selected date and movie
+     * and offers every time that fits in at least one room.
+     */
+    private void refreshTimeSlots() {
+        LocalDate date = datePicker.getValue();
+        if (movie == null || date == null) {
+            freeSlots = Map.of();
+            timeComboBox.getItems().clear();
+            refreshRoomAvailability();
+            return;
+        }
+        freeSlots = slotFinder.findFreeSlots(movie, date, getRoomCheckBoxes().stream().map(CheckBox::getText).toList());
+        SortedSet<LocalTime> times = new TreeSet<>();
+        freeSlots.values().forEach(times::addAll);
+        timeComboBox.getItems().setAll(times.stream().map(TIME_FORMAT::format).toList());
+        refreshRoomAvailability();
+    }
+
+    /**
+     * Enables only the room checkboxes that are free at the selected time.
+     * With no time selected, every room is enabled.
+     */
+    private void refreshRoomAvailability() {
+        String value = timeComboBox.getValue();
+        LocalTime time = value == null ? null : LocalTime.parse(value, TIME_FORMAT);
+        for (CheckBox room : getRoomCheckBoxes()) {
+            boolean free = time == null || freeSlots.getOrDefault(room.getText(), List.of()).contains(time);
+            room.setDisable(!free);
+            if (!free) room.setSelected(false);
+        }
+    }
+
+    /**
+     * @return the room checkboxes in display order
+     */
+    private List<CheckBox> getRoomCheckBoxes() {
+        return List.of(room1, room2, room3, room4, room5);
+    }
+
+    /**
+     * Called when the cached form is opened again.
+     * Forgets the previous movie and its created showtimes and clears the inputs.
+     */
+    @Override
+    public void resetView() {
+        movie = null;
+        showtimes.clear();
+        clearForm();
     }
 
     /**
@@ -171,12 +242,13 @@ public class ShowtimeFormController {
         genreLabel.setText("Genre: " + movie.getGenre());
         durationLabel.setText("Duration: " + movie.getDuration());
         ratingLabel.setText("Rating: " + movie.getRating());
+        refreshTimeSlots();
     }
 
     /**
      * Handles the save button click event.
-     * Validates input, creates a new Showtime object, adds it to the list,
-     * and displays a confirmation message.
+     * Validates input, creates a new Showtime object, registers it in the schedule
+     * (rejecting it if the room is already in use), and displays a confirmation message.
      * This is an FXML event handler.
      */
     @FXML
@@ -186,16 +258,23 @@ public class ShowtimeFormController {
             String time = timeComboBox.getValue();
             String room = getSelectedRoom();
 
-            Showtime showtime = new Showtime(movie, date, time, room);
-            showtimes.add(showtime);
-
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Success");
-            alert.setHeaderText("Showtime Created");
-            alert.setContentText("Showtime for " + movie.getTitle() + " has been created.");
-            alert.showAndWait();
-
-            clearForm();
+            Movie target = movie;
+            BackgroundTasks.submit(() -> {
+                Showtime showtime = new Showtime(target, date, time, room);
+                Showtime.register(showtime);
+                return showtime;
+            }, showtime -> {
+                showtimes.add(showtime);
+
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Success");
+                alert.setHeaderText("Showtime Created");
+                alert.setContentText("Showtime for " + target.getTitle() + " has been created.");
+                alert.showAndWait();
+
+                clearForm();
+            }, error -> showAlert(error instanceof IllegalArgumentException ? "Scheduling Conflict" : "Error",
+                    error.getMessage()), saveButton);
         }
     }
 
@@ -1,12 +1,17 @@
 package Controller;
 
+import Helper.AppBootstrap;
+import Helper.BackgroundTasks;
 import Helper.ViewSwitcher;
+import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import model.Client;
 
 /**
@@ -14,7 +19,7 @@ import model.Client;
  * It handles input validation for new client registration, creates a new {@code Client}
  * object, and navigates the user to the main movie list upon successful registration.
  */
-public class SignUpController {
+public class SignUpController implements ViewSwitcher.Resettable {
 
     // --- FXML Components ---
     /** The text field for the new user's desired username. */
@@ -37,6 +42,13 @@ public class SignUpController {
     @FXML
     private Button signUpBackButton;
 
+    /** Hint telling whether the typed username is still available. */
+    @FXML
+    private Label usernameHint;
+
+    /** Delays the availability check until the user stops typing. */
+    private final PauseTransition usernameDebounce = new PauseTransition(Duration.millis(300));
+
 
     /**
      * Initializes the controller after its root element has been completely processed.
@@ -47,12 +59,46 @@ public class SignUpController {
         // Set up the button actions
         signUpButton.setOnAction(event -> OnSignUpButtonClick());
         signUpBackButton.setOnAction(event -> OnBackButtonClick());
+
+        usernameDebounce.setOnFinished(event -> updateUsernameHint());
+        usernameSignTextField.textProperty().addListener((obs, oldText, newText) -> {
+            usernameHint.setText("");
+            usernameDebounce.playFromStart();
+        });
+    }
+
+    /**
+     * Shows whether the username currently typed is available.
+     */
+    private void updateUsernameHint() {
+        String username = usernameSignTextField.getText();
+        if (username == null || username.isBlank()) {
+            usernameHint.setText("");
+        } else if (Client.isUsernameAvailable(username)) {
+            usernameHint.setText("Username available");
+            usernameHint.setStyle("-fx-text-fill: green;");
+        } else {
+            usernameHint.setText("Username already taken");
+            usernameHint.setStyle("-fx-text-fill: red;");
+        }
+    }
+
+    /**
+     * Called when the cached sign-up view is shown again; clears the form.
+     */
+    @Override
+    public void resetView() {
+        usernameDebounce.stop();
+        usernameSignTextField.clear();
+        usernameHint.setText("");
+        passwordSignTextField.clear();
+        emailSignTextField.clear();
     }
 
     /**
      * Handles the action when the Sign Up button is clicked.
-     * It validates the input fields, creates a new {@code Client} object, registers it,
-     * displays an alert, and navigates to the client movie list.
+     * It validates the input fields and creates a new {@code Client} object (which registers
+     * itself) in the background, then displays an alert and navigates to the client movie list.
      */
     @FXML
     private void OnSignUpButtonClick() {
@@ -60,20 +106,20 @@ public class SignUpController {
         String password = passwordSignTextField.getText();
         String email = emailSignTextField.getText();
 
-        try {
-            Client newClient = new Client(username, password, email);
-
-            Client.registerClient(newClient);
-
+        BackgroundTasks.submit(() -> {
+            // Loading the sample accounts replaces the registry, so the new account must come after it.
+            AppBootstrap.awaitClients();
+            return new Client(username, password, email);
+        }, newClient -> {
             showAlert("Sign Up Successful", "You have successfully signed up as a new client: " + newClient.getUsername());
-
-
             navigateToClientMovieList();
-
-        } catch (IllegalArgumentException e) {
-
-            showAlert("Sign Up Failed", e.getMessage());
-        }
+        }, error -> {
+            if (error instanceof IllegalArgumentException) {
+                showAlert("Sign Up Failed", error.getMessage());
+            } else {
+                showAlert("Sign Up Failed", "Could not create the account: " + error);
+            }
+        }, signUpButton, signUpBackButton);
     }
 
     /**
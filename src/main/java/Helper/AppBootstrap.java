@@ -0,0 +1,152 @@
+package Helper;
+
+import model.Client;
+import persistence.CatalogFile;
+import persistence.Persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * One-time startup of the application data.
+ * <p>
+ * {@link #start()} loads the client accounts and the catalog (rooms, movies and
+ * showtimes) on background daemon threads, in parallel, and records how long each
+ * phase took. The UI can be shown immediately; views check {@link #isClientsReady()}
+ * and read the catalog as loaded so far, which is empty until the catalog phase finishes.
+ * Calling {@link #start()} again returns the same startup instead of reloading.
+ * When a data directory or a store is configured, saved data is recovered first (the sample
+ * data is only loaded if nothing was saved), and the booking journal and the store are started
+ * once the data is loaded.
+ */
+public final class AppBootstrap {
+
+    private AppBootstrap() { /* static helper, no instantiation */ }
+
+    /** Running or completed startup; {@code null} until {@link #start()} is called. */
+    private static CompletableFuture<Void> startup;
+    /** Completes once the client registry has been filled. */
+    private static final CompletableFuture<Void> CLIENTS = new CompletableFuture<>();
+    /** Duration of every finished phase, in completion order. */
+    private static final Map<String, Duration> PHASE_TIMES = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Starts loading the application data in the background (only the first call has an effect).
+     * @return future completing when every phase has finished
+     */
+    public static synchronized CompletableFuture<Void> start() {
+        if (startup != null) return startup;
+        ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "app-bootstrap");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long begin = System.nanoTime();
+
+        CompletableFuture<Boolean> recovered = CompletableFuture.supplyAsync(AppBootstrap::recover, executor);
+
+        CompletableFuture<Void> clients = recovered.thenAcceptAsync(done -> {
+            if (!done) timed("clients", () -> { Client.loadSampleClients(); return null; });
+        }, executor);
+        clients.whenComplete((ignored, error) -> {
+            if (error != null) CLIENTS.completeExceptionally(error);
+            else CLIENTS.complete(null);
+        });
+
+        CompletableFuture<Void> catalog = recovered.thenAcceptAsync(done -> {
+            if (done) return;
+            SampleDataHelper.Data data = timed("catalog", AppBootstrap::loadCatalog);
+            if (!timed("showtimes", () -> CatalogService.loadIfAbsent(data)) && CatalogFile.getConfiguredFile() != null) {
+                System.out.println("Catalog file " + CatalogFile.getConfiguredFile()
+                        + " was not loaded: the catalog had already been loaded");
+            }
+        }, executor);
+
+        // Changes are recorded from here on; the loaded data is covered by the first snapshot and the store sync.
+        startup = CompletableFuture.allOf(clients, catalog).thenRun(() -> timed("persistence", () -> {
+            try {
+                Persistence.start();
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        })).whenComplete((ignored, error) -> {
+            executor.shutdown();
+            if (error != null) {
+                System.out.println("Startup failed: " + error);
+            } else {
+                System.out.printf("Startup finished in %d ms%n", (System.nanoTime() - begin) / 1_000_000);
+            }
+        });
+        return startup;
+    }
+
+    /** @return {@code true} once the client accounts are available for login */
+    public static boolean isClientsReady() {
+        return CLIENTS.isDone() && !CLIENTS.isCompletedExceptionally();
+    }
+
+    /**
+     * Blocks until the client accounts are loaded; meant for background threads.
+     * @throws IllegalStateException if startup was not started or failed to load the accounts
+     */
+    public static void awaitClients() {
+        synchronized (AppBootstrap.class) {
+            if (startup == null) throw new IllegalStateException("Startup has not been started");
+        }
+        CLIENTS.join();
+    }
+
+    /** @return {@code true} once every startup phase has finished */
+    public static synchronized boolean isReady() {
+        return startup != null && startup.isDone();
+    }
+
+    /** @return phase name to duration for every finished phase */
+    public static Map<String, Duration> getPhaseTimes() {
+        synchronized (PHASE_TIMES) {
+            return Map.copyOf(PHASE_TIMES);
+        }
+    }
+
+    /** Loads the catalog file named by {@value CatalogFile#PROPERTY}, or the sample data if unset. */
+    private static SampleDataHelper.Data loadCatalog() {
+        Path file = CatalogFile.getConfiguredFile();
+        if (file == null) return SampleDataHelper.load();
+        try {
+            return CatalogFile.open(file).toData();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Loads saved data if persistence is configured; {@code true} if the sample data is not needed. */
+    private static boolean recover() {
+        if (!Persistence.isConfigured()) return false;
+        return timed("recovery", () -> {
+            try {
+                return Persistence.recover();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static <T> T timed(String phase, Supplier<T> work) {
+        long begin = System.nanoTime();
+        T result = work.get();
+        Duration took = Duration.ofNanos(System.nanoTime() - begin);
+        PHASE_TIMES.put(phase, took);
+        System.out.printf("Startup phase '%s' took %d ms on %s%n", phase, took.toMillis(), Thread.currentThread().getName());
+        return result;
+    }
+}
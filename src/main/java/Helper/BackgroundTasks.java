@@ -0,0 +1,106 @@
+package Helper;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+import javafx.scene.Node;
+import javafx.scene.control.ProgressIndicator;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs model work off the JavaFX Application Thread.
+ * <p>
+ * Work is wrapped in a {@link Task} and executed on a virtual thread, so blocking calls
+ * (password hashing, disk, large index scans) never freeze the UI. The success and failure
+ * callbacks are delivered on the FX thread. While the task runs the given busy nodes are
+ * disabled; a {@link ProgressIndicator} among them is shown and bound to the task's progress
+ * instead. Calling {@link Task#cancel()} on the returned task interrupts the work, restores
+ * the nodes and skips both callbacks.
+ */
+public final class BackgroundTasks {
+
+    private BackgroundTasks() { /* static helper, no instantiation */ }
+
+    /** One virtual thread per task; virtual threads never keep the JVM alive. */
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Runs a computation in the background.
+     * @param work computation to run off the FX thread
+     * @param onSuccess receives the result on the FX thread
+     * @param onFailure receives the thrown exception on the FX thread
+     * @param busyNodes controls to disable (or progress indicators to show) while running
+     * @param <T> result type
+     * @return the running task, e.g. to cancel it
+     */
+    public static <T> Task<T> submit(Callable<T> work, Consumer<? super T> onSuccess,
+                                     Consumer<Throwable> onFailure, Node... busyNodes) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        return submit(task, onSuccess, onFailure, busyNodes);
+    }
+
+    /**
+     * Runs a prepared task in the background. Use this form for work that reports progress
+     * through {@code updateProgress} or {@code updateMessage}.
+     * @param task task to run
+     * @param onSuccess receives the result on the FX thread
+     * @param onFailure receives the thrown exception on the FX thread
+     * @param busyNodes controls to disable (or progress indicators to show) while running
+     * @param <T> result type
+     * @return the given task
+     */
+    public static <T> Task<T> submit(Task<T> task, Consumer<? super T> onSuccess,
+                                     Consumer<Throwable> onFailure, Node... busyNodes) {
+        Runnable start = () -> {
+            setBusy(task, busyNodes, true);
+            task.setOnSucceeded(event -> {
+                setBusy(task, busyNodes, false);
+                if (onSuccess != null) onSuccess.accept(task.getValue());
+            });
+            task.setOnFailed(event -> {
+                setBusy(task, busyNodes, false);
+                Throwable error = task.getException();
+                if (onFailure != null) onFailure.accept(error);
+                else error.printStackTrace();
+            });
+            task.setOnCancelled(event -> setBusy(task, busyNodes, false));
+            EXECUTOR.execute(task);
+        };
+        // Handlers must be installed on the FX thread before the task can finish.
+        if (Platform.isFxApplicationThread()) start.run();
+        else Platform.runLater(start);
+        return task;
+    }
+
+    /**
+     * Cancels a task if it is still pending or running.
+     * @param task task to cancel, may be {@code null}
+     */
+    public static void cancel(Task<?> task) {
+        if (task != null && task.getState() != Worker.State.SUCCEEDED && task.getState() != Worker.State.FAILED) {
+            task.cancel(true);
+        }
+    }
+
+    private static void setBusy(Task<?> task, Node[] nodes, boolean busy) {
+        for (Node node : nodes) {
+            if (node == null) continue;
+            if (node instanceof ProgressIndicator indicator) {
+                if (busy) indicator.progressProperty().bind(task.progressProperty());
+                else indicator.progressProperty().unbind();
+                indicator.setVisible(busy);
+            } else {
+                node.setDisable(busy);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package Helper;
+
+import model.ModelEvents;
+import model.Movie;
+import model.Room;
+import model.Showtime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Application-wide catalog of rooms and movies shared by all controllers.
+ * <p>
+ * The catalog is published as immutable, versioned {@link Snapshot}s. Opening a view is a
+ * single volatile read of the current snapshot; edits build a new snapshot (copy-on-write)
+ * and swap it in atomically, so readers never see a half-applied change and edits made in
+ * one view are visible in every other view. Showtimes live in the {@link Showtime} index.
+ */
+public final class CatalogService {
+
+    private CatalogService() { /* static service, no instantiation */ }
+
+    /**
+     * Marks a list that is immutable and random-access already, so a {@link Snapshot} keeps it
+     * instead of copying it, e.g. a view whose entries are only built when read.
+     */
+    public interface ImmutableView extends RandomAccess { }
+
+    /**
+     * Immutable view of the catalog at one point in time.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final List<Room> rooms;
+        private final List<Movie> movies;
+
+        public Snapshot(long version, List<Room> rooms, List<Movie> movies) {
+            this.version = version;
+            this.rooms = immutable(rooms);
+            this.movies = immutable(movies);
+        }
+
+        /** Immutable views are kept as they are; copying a lazy view would build every entry. */
+        private static <T> List<T> immutable(List<T> list) {
+            return list instanceof ImmutableView ? list : List.copyOf(list);
+        }
+
+        /** @return version number, incremented on every change */
+        public long getVersion() { return version; }
+        /** @return immutable list of rooms */
+        public List<Room> getRooms() { return rooms; }
+        /** @return immutable list of movies */
+        public List<Movie> getMovies() { return movies; }
+    }
+
+    /** Currently published snapshot. */
+    private static final AtomicReference<Snapshot> CURRENT = new AtomicReference<>(new Snapshot(0, List.of(), List.of()));
+
+    /** Whether initial data has been loaded. */
+    private static volatile boolean loaded;
+
+    /**
+     * Returns the current catalog without waiting for it to be loaded. Until startup (or
+     * {@link #ensureLoaded()}) loads it, the catalog is empty; cached views re-read it when shown.
+     * @return current snapshot
+     */
+    public static Snapshot getSnapshot() {
+        return CURRENT.get();
+    }
+
+    /** @return {@code true} once initial data has been loaded */
+    public static boolean isLoaded() { return loaded; }
+
+    /**
+     * Loads the sample data once. Later calls do nothing.
+     */
+    public static synchronized void ensureLoaded() {
+        if (loaded) return;
+        load(SampleDataHelper.load());
+    }
+
+    /**
+     * Replaces the catalog with the given data and registers its showtimes.
+     * @param data rooms, movies and showtimes to publish
+     */
+    public static synchronized void load(SampleDataHelper.Data data) {
+        ModelEvents.beginPendingChange();
+        try {
+            // Checked first: iterating a mapped catalog would build every movie.
+            if (ModelEvents.isActive()) for (Movie movie : data.getMovies()) ModelEvents.movieAdded(movie);
+            update(old -> new Snapshot(old.getVersion() + 1, data.getRooms(), data.getMovies()));
+        } finally {
+            ModelEvents.endPendingChange();
+        }
+        for (Showtime showtime : data.getShowtimes()) Showtime.register(showtime);
+        loaded = true;
+    }
+
+    /**
+     * Loads the given data unless the catalog has already been loaded.
+     * @param data rooms, movies and showtimes to publish
+     * @return {@code true} if the data was loaded
+     */
+    public static synchronized boolean loadIfAbsent(SampleDataHelper.Data data) {
+        if (loaded) return false;
+        load(data);
+        return true;
+    }
+
+    /**
+     * Replaces the catalog and the whole schedule with recovered data, even if sample data
+     * was loaded in the meantime. Changes are reported like any other; recovery runs this
+     * inside {@link ModelEvents#runSilently(Runnable)}.
+     * @param data rooms, movies and showtimes to publish
+     * @return number of showtimes that could not be scheduled because of a room conflict
+     */
+    public static synchronized int restore(SampleDataHelper.Data data) {
+        for (Showtime showtime : List.copyOf(Showtime.getAllShowtimes())) Showtime.unregister(showtime);
+        update(old -> new Snapshot(old.getVersion() + 1, data.getRooms(), data.getMovies()));
+        int rejected = 0;
+        for (Showtime showtime : data.getShowtimes()) {
+            try {
+                if (!Showtime.register(showtime)) rejected++;
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+        }
+        loaded = true;
+        return rejected;
+    }
+
+    /**
+     * Adds a movie to the catalog.
+     * @param movie movie to add
+     * @return the new snapshot
+     */
+    public static Snapshot addMovie(Movie movie) {
+        if (movie == null) throw new IllegalArgumentException("Movie cannot be null");
+        // A load replaces the catalog, so it must not run after this edit.
+        ensureLoaded();
+        // Reported before publishing, so listeners see the movie before any showtime of it.
+        ModelEvents.beginPendingChange();
+        try {
+            ModelEvents.movieAdded(movie);
+            return update(old -> {
+                List<Movie> movies = new ArrayList<>(old.getMovies());
+                movies.add(movie);
+                return new Snapshot(old.getVersion() + 1, old.getRooms(), movies);
+            });
+        } finally {
+            ModelEvents.endPendingChange();
+        }
+    }
+
+    /**
+     * Removes a movie from the catalog and unregisters all of its showtimes.
+     * @param movie movie to remove
+     * @return the new snapshot
+     */
+    public static Snapshot removeMovie(Movie movie) {
+        ensureLoaded();
+        Snapshot snapshot = update(old -> {
+            List<Movie> movies = new ArrayList<>(old.getMovies());
+            movies.remove(movie);
+            return new Snapshot(old.getVersion() + 1, old.getRooms(), movies);
+        });
+        for (Showtime showtime : List.copyOf(Showtime.getShowtimesForMovie(movie))) Showtime.unregister(showtime);
+        ModelEvents.movieRemoved(movie);
+        return snapshot;
+    }
+
+    /**
+     * Applies a copy-on-write change and publishes the result atomically.
+     * @param change builds the next snapshot from the current one
+     * @return the published snapshot
+     */
+    private static Snapshot update(UnaryOperator<Snapshot> change) {
+        return CURRENT.updateAndGet(change);
+    }
+}
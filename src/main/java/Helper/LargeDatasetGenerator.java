@@ -0,0 +1,266 @@
+package Helper;
+
+import model.Client;
+import model.Credentials;
+import model.Movie;
+import model.Room;
+import model.Showtime;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Generates large synthetic datasets for sizing and load tests, e.g. 50 sites, 2,000 movies,
+ * 5M clients and 20M showtimes with seat occupancy.
+ * <p>
+ * Output is streamed as {@link SampleDataHelper.Data} batches of at most {@code batchSize}
+ * clients and showtimes, so the whole dataset is never held at once. Every batch carries the
+ * rooms of its site and the shared movie catalog. Sites are generated in parallel; each site
+ * draws from its own random stream derived from the seed and the site number, so the output
+ * of a site is the same for a given seed regardless of thread scheduling (batches of different
+ * sites may arrive interleaved, and the sink is called from several threads).
+ * <p>
+ * Movie ids derive from the seed; showtime ids come from the running process, as for any new
+ * {@link Showtime}. Clients and showtimes are not registered. All clients share the password
+ * {@value #CLIENT_PASSWORD}, hashed once per generator. Showtimes never overlap within a room: each room
+ * is filled day by day with back-to-back showings (plus a cleaning buffer) between opening
+ * and closing time.
+ */
+public class LargeDatasetGenerator {
+
+    /** Rooms per site unless configured otherwise. */
+    public static final int DEFAULT_ROOMS_PER_SITE = 12;
+    /** Clients and showtimes per batch unless configured otherwise. */
+    public static final int DEFAULT_BATCH_SIZE = 50_000;
+    /** First day of the schedules unless configured otherwise; fixed so equal seeds give equal datasets. */
+    public static final LocalDate DEFAULT_FIRST_DAY = LocalDate.of(2025, 1, 6);
+    /** Password of every generated client. */
+    public static final String CLIENT_PASSWORD = "cinema-load";
+
+    /** First showing of the day, in minutes after midnight (10:00). */
+    private static final int OPENING_MINUTE = 10 * 60;
+    /** Last showing must have ended by then (23:59). */
+    private static final int CLOSING_MINUTE = 24 * 60 - 1;
+    /** Gap after every showing, rounded into the next 15-minute start. */
+    private static final int BUFFER_MINUTES = 15;
+    /** Start time text for every 15-minute slot of the day. */
+    private static final String[] SLOT_TEXT = new String[24 * 4];
+    static {
+        for (int i = 0; i < SLOT_TEXT.length; i++) SLOT_TEXT[i] = String.format("%02d:%02d", i / 4, i % 4 * 15);
+    }
+
+    private static final String[] GENRES = {"Action", "Drama", "Comedy", "Sci-Fi", "Thriller", "Animation", "Horror", "Musical", "Documentary", "Romance"};
+    private static final String[] RATINGS = {"G", "PG", "PG-13", "R"};
+    private static final String[] TITLE_WORDS = {"Last", "Silent", "Broken", "Golden", "Hidden", "Midnight", "Crimson", "Lost",
+            "River", "Empire", "Garden", "Signal", "Horizon", "Echo", "Winter", "Shadow", "Harbor", "Machine", "Letter", "Storm"};
+    private static final String[] ROOM_KINDS = {"Standard", "Classic", "IMAX Hall", "VIP Lounge", "3D Experience"};
+    private static final int[] ROOM_CAPACITIES = {150, 120, 250, 50, 120};
+
+    private final long seed;
+    private final int sites;
+    private final int roomsPerSite;
+    private final List<Movie> movies;
+    private final long clients;
+    private final long showtimes;
+    private final LocalDate firstDay;
+    private final int batchSize;
+    private final ForkJoinPool pool;
+    /** Hash of {@link #CLIENT_PASSWORD}, computed once and shared by all generated clients. */
+    private final String passwordHash;
+
+    /**
+     * Creates a generator with {@value #DEFAULT_ROOMS_PER_SITE} rooms per site, batches of
+     * {@value #DEFAULT_BATCH_SIZE}, schedules starting on {@link #DEFAULT_FIRST_DAY} and the common fork/join pool.
+     * @param seed random seed; equal seeds give equal datasets
+     * @param sites number of cinema sites (&gt; 0)
+     * @param movies number of movies in the shared catalog (&gt; 0)
+     * @param clients total number of clients
+     * @param showtimes total number of showtimes
+     */
+    public LargeDatasetGenerator(long seed, int sites, int movies, long clients, long showtimes) {
+        this(seed, sites, DEFAULT_ROOMS_PER_SITE, movies, clients, showtimes, DEFAULT_FIRST_DAY, DEFAULT_BATCH_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param seed random seed; equal seeds give equal datasets
+     * @param sites number of cinema sites (&gt; 0)
+     * @param roomsPerSite rooms in every site (1..99)
+     * @param movies number of movies in the shared catalog (&gt; 0)
+     * @param clients total number of clients (&gt;= 0)
+     * @param showtimes total number of showtimes (&gt;= 0)
+     * @param firstDay first day of the generated schedules
+     * @param batchSize maximum clients and showtimes per batch (&gt; 0)
+     * @param pool pool generating the sites
+     * @throws IllegalArgumentException if a count is out of range
+     */
+    public LargeDatasetGenerator(long seed, int sites, int roomsPerSite, int movies, long clients, long showtimes,
+                                 LocalDate firstDay, int batchSize, ForkJoinPool pool) {
+        if (sites <= 0) throw new IllegalArgumentException("Number of sites must be positive");
+        if (roomsPerSite <= 0 || roomsPerSite > 99) throw new IllegalArgumentException("Rooms per site must be between 1 and 99");
+        if (movies <= 0) throw new IllegalArgumentException("Number of movies must be positive");
+        if (clients < 0 || showtimes < 0) throw new IllegalArgumentException("Counts cannot be negative");
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size must be positive");
+        if (firstDay == null || pool == null) throw new IllegalArgumentException("First day and pool are required");
+        this.seed = seed;
+        this.sites = sites;
+        this.roomsPerSite = roomsPerSite;
+        this.clients = clients;
+        this.showtimes = showtimes;
+        this.firstDay = firstDay;
+        this.batchSize = batchSize;
+        this.pool = pool;
+        this.movies = Collections.unmodifiableList(createMovies(movies));
+        this.passwordHash = Credentials.hash(CLIENT_PASSWORD);
+    }
+
+    /** @return the shared movie catalog, included in every batch */
+    public List<Movie> getMovies() { return movies; }
+
+    /** @return number of sites */
+    public int getSites() { return sites; }
+
+    /**
+     * Generates every site in parallel and passes the batches to the sink.
+     * @param sink receives batches; called concurrently from the generating threads
+     * @throws IllegalStateException if generation fails or is interrupted
+     */
+    public void generate(Consumer<SampleDataHelper.Data> sink) {
+        List<Callable<Void>> tasks = new ArrayList<>(sites);
+        for (int site = 0; site < sites; site++) {
+            int current = site;
+            tasks.add(() -> { generateSite(current, sink); return null; });
+        }
+        try {
+            for (Future<Void> done : pool.invokeAll(tasks)) done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Dataset generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Dataset generation failed", e.getCause());
+        }
+    }
+
+    /**
+     * Generates one site on the calling thread: its clients first, then its showtimes,
+     * in batches of at most {@code batchSize}.
+     * @param site site number, 0-based
+     * @param sink receives the site's batches in order
+     */
+    public void generateSite(int site, Consumer<SampleDataHelper.Data> sink) {
+        if (site < 0 || site >= sites) throw new IllegalArgumentException("No such site: " + site);
+        List<Room> rooms = createRooms(site);
+
+        long firstClient = share(clients, site);
+        long clientCount = share(clients, site + 1) - firstClient;
+        List<Client> clientBatch = new ArrayList<>();
+        for (long i = 0; i < clientCount; i++) {
+            long number = firstClient + i;
+            String username = "user" + number;
+            clientBatch.add(Client.createDetached(username, passwordHash, username + "@example.com"));
+            if (clientBatch.size() == batchSize) {
+                sink.accept(new SampleDataHelper.Data(rooms, movies, clientBatch, List.of()));
+                clientBatch = new ArrayList<>();
+            }
+        }
+        if (!clientBatch.isEmpty()) sink.accept(new SampleDataHelper.Data(rooms, movies, clientBatch, List.of()));
+
+        long showtimeCount = share(showtimes, site + 1) - share(showtimes, site);
+        SplittableRandom random = new SplittableRandom(mix(seed + site));
+        int[] nextStart = new int[rooms.size()];
+        List<Showtime> batch = new ArrayList<>();
+        long created = 0;
+        for (int day = 0; created < showtimeCount; day++) {
+            LocalDate date = firstDay.plusDays(day);
+            boolean weekend = date.getDayOfWeek().getValue() >= 6;
+            Arrays.fill(nextStart, OPENING_MINUTE);
+            boolean placed = true;
+            // Round-robin over the rooms so a partial last day is spread across the site.
+            while (placed && created < showtimeCount) {
+                placed = false;
+                for (int r = 0; r < rooms.size() && created < showtimeCount; r++) {
+                    Movie movie = pickMovie(random);
+                    int start = nextStart[r];
+                    if (start + movie.getDurationMinutes() > CLOSING_MINUTE) continue;
+                    Room room = rooms.get(r);
+                    Showtime showtime = new Showtime(movie, date, SLOT_TEXT[start / 15], room.getLabel(), room.getCapacity());
+                    int sold = soldSeats(random, room.getCapacity(), start, weekend);
+                    if (sold > 0) showtime.reserve(sold);
+                    batch.add(showtime);
+                    created++;
+                    nextStart[r] = roundUpToSlot(start + movie.getDurationMinutes() + BUFFER_MINUTES);
+                    placed = true;
+                    if (batch.size() == batchSize) {
+                        sink.accept(new SampleDataHelper.Data(rooms, movies, List.of(), batch));
+                        batch = new ArrayList<>();
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) sink.accept(new SampleDataHelper.Data(rooms, movies, List.of(), batch));
+    }
+
+    /**
+     * Picks a movie with a skewed popularity: low catalog positions are shown far more often.
+     */
+    private Movie pickMovie(SplittableRandom random) {
+        double u = random.nextDouble();
+        return movies.get((int) (u * u * u * movies.size()));
+    }
+
+    /**
+     * Seats sold for a showing: busier in the evening and at weekends, never above capacity.
+     */
+    private static int soldSeats(SplittableRandom random, int capacity, int startMinute, boolean weekend) {
+        double base = startMinute >= 18 * 60 ? 0.55 : 0.25;
+        if (weekend) base += 0.2;
+        double occupancy = Math.min(1.0, Math.max(0.0, base + (random.nextDouble() - 0.5) * 0.5));
+        return (int) (capacity * occupancy);
+    }
+
+    /** Movies get ids derived from the seed, so generators with equal seeds share the same catalog. */
+    private List<Movie> createMovies(int count) {
+        SplittableRandom random = new SplittableRandom(mix(seed - 1));
+        List<Movie> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = TITLE_WORDS[random.nextInt(TITLE_WORDS.length)] + " " + TITLE_WORDS[random.nextInt(TITLE_WORDS.length)] + " " + (i + 1);
+            int minutes = 80 + random.nextInt(101);
+            result.add(Movie.restore("movie-" + seed + "-" + (i + 1), title, GENRES[random.nextInt(GENRES.length)], minutes,
+                    RATINGS[random.nextInt(RATINGS.length)]));
+        }
+        return result;
+    }
+
+    private List<Room> createRooms(int site) {
+        List<Room> rooms = new ArrayList<>(roomsPerSite);
+        for (int r = 0; r < roomsPerSite; r++) {
+            int kind = r % ROOM_KINDS.length;
+            rooms.add(new Room(String.format("S%02d-R%02d", site + 1, r + 1), ROOM_KINDS[kind], ROOM_CAPACITIES[kind]));
+        }
+        return Collections.unmodifiableList(rooms);
+    }
+
+    /** @return first index of {@code site} when {@code total} items are split evenly over the sites */
+    private long share(long total, int site) {
+        return total / sites * site + Math.min(site, total % sites);
+    }
+
+    private static int roundUpToSlot(int minute) {
+        return (minute + 14) / 15 * 15;
+    }
+
+    /** SplitMix64 finalizer, spreading nearby seeds into unrelated random streams. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,98 @@
+package Helper;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe latency histogram with log-linear buckets.
+ * <p>
+ * Values are grouped by power of two, and every power of two is split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, so any recorded value is reported with a
+ * relative error below 1/{@value #SUB_BUCKETS} (about 1.6%) from 1 ns up to hours.
+ * Recording is one atomic increment; memory use is fixed (a few thousand counters).
+ */
+public class LatencyHistogram {
+
+    /** Linear sub-buckets per power of two; a power of two. */
+    private static final int SUB_BUCKETS = 64;
+    private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+    /** Values below this are counted exactly. */
+    private static final int LINEAR_LIMIT = SUB_BUCKETS;
+    private static final int BUCKETS = LINEAR_LIMIT + (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one value.
+     * @param nanos latency in nanoseconds; negative values are counted as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        total.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /** @return number of recorded values */
+    public long getCount() { return total.sum(); }
+
+    /** @return mean of the recorded values in nanoseconds, or 0 if empty */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /** @return largest recorded value in nanoseconds */
+    public long getMax() { return max.get(); }
+
+    /**
+     * Returns the value at a quantile, e.g. 0.99 for p99.
+     * @param quantile quantile between 0 and 1
+     * @return upper bound of the bucket holding the quantile, in nanoseconds; 0 if empty
+     */
+    public long getValueAtQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        long count = getCount();
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) return Math.min(upperBound(bucket), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Adds the counts of another histogram to this one.
+     * @param other histogram to merge
+     */
+    public void add(LatencyHistogram other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long c = other.counts.get(bucket);
+            if (c != 0) counts.addAndGet(bucket, c);
+        }
+        total.add(other.total.sum());
+        sum.add(other.sum.sum());
+        max.accumulateAndGet(other.getMax(), Math::max);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> exponent) - SUB_BUCKETS;
+        return LINEAR_LIMIT + exponent * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) return bucket;
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS;
+        int sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << exponent) - 1;
+    }
+}
@@ -0,0 +1,275 @@
+package Helper;
+
+import model.Client;
+import model.Credentials;
+import model.Manager;
+import model.Movie;
+import model.Showtime;
+import model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Headless load generator simulating a rush of customers, e.g. 2,000 people opening the app
+ * in the minutes before a premiere.
+ * <p>
+ * Customers arrive at a configurable rate (Poisson arrivals, open loop) and each one runs a
+ * session on its own virtual thread, calling the same model paths as the controllers: login
+ * ({@link Client#findClientByUsername}, {@link Client#verifyPassword}, {@link Manager#verifyPassword}),
+ * sign-up, movie listing, showtime lookup and seat reservation. Most customers try to book the
+ * premiere, so reservations contend on a few showtimes. At the end the driver prints throughput
+ * and p50/p99/p99.9 latency per operation.
+ * <p>
+ * Options are {@code key=value} arguments, e.g.
+ * {@code java Helper.LoadDriver customers=2000 rate=20 accounts=100000 premiere=0.8}:
+ * <ul>
+ *   <li>{@code customers}: sessions to run (default 2000)</li>
+ *   <li>{@code rate}: arrivals per second (default 20, i.e. 2,000 customers in ~100 s)</li>
+ *   <li>{@code accounts}: existing client accounts (default 100000)</li>
+ *   <li>{@code showtimes}: extra showtimes generated into the schedule (default 5000)</li>
+ *   <li>{@code signups}: share of customers who sign up instead of logging in (default 0.1)</li>
+ *   <li>{@code premiere}: share of bookings that target the premiere (default 0.8)</li>
+ *   <li>{@code seed}: random seed (default 1)</li>
+ * </ul>
+ */
+public class LoadDriver {
+
+    /** Operations measured by the driver. */
+    public enum Operation { LOGIN, MANAGER_LOGIN, SIGN_UP, LIST_MOVIES, SHOWTIME_LOOKUP, RESERVE }
+
+    private final int customers;
+    private final double ratePerSecond;
+    private final int accounts;
+    private final int extraShowtimes;
+    private final double signUpShare;
+    private final double premiereShare;
+    private final long seed;
+
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> failures = new EnumMap<>(Operation.class);
+    private final LongAdder soldOut = new LongAdder();
+    private final AtomicLong nextSignUp = new AtomicLong();
+    private final Manager manager = new Manager();
+    private List<Showtime> premiere;
+    private long elapsedNanos;
+
+    /**
+     * @param customers number of sessions (&gt; 0)
+     * @param ratePerSecond customer arrivals per second (&gt; 0)
+     * @param accounts pre-existing client accounts (&gt; 0)
+     * @param extraShowtimes generated showtimes added to the sample schedule
+     * @param signUpShare share of customers who sign up, 0..1
+     * @param premiereShare share of bookings that go to the premiere, 0..1
+     * @param seed random seed
+     */
+    public LoadDriver(int customers, double ratePerSecond, int accounts, int extraShowtimes,
+                      double signUpShare, double premiereShare, long seed) {
+        if (customers <= 0 || ratePerSecond <= 0 || accounts <= 0 || extraShowtimes < 0)
+            throw new IllegalArgumentException("Customers, rate and accounts must be positive");
+        if (signUpShare < 0 || signUpShare > 1 || premiereShare < 0 || premiereShare > 1)
+            throw new IllegalArgumentException("Shares must be between 0 and 1");
+        this.customers = customers;
+        this.ratePerSecond = ratePerSecond;
+        this.accounts = accounts;
+        this.extraShowtimes = extraShowtimes;
+        this.signUpShare = signUpShare;
+        this.premiereShare = premiereShare;
+        this.seed = seed;
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            failures.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Runs the driver with {@code key=value} options (see the class description).
+     * @param args options
+     * @throws InterruptedException if interrupted while waiting for the sessions
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        LoadDriver driver = new LoadDriver(
+                Integer.parseInt(options.getOrDefault("customers", "2000")),
+                Double.parseDouble(options.getOrDefault("rate", "20")),
+                Integer.parseInt(options.getOrDefault("accounts", "100000")),
+                Integer.parseInt(options.getOrDefault("showtimes", "5000")),
+                Double.parseDouble(options.getOrDefault("signups", "0.1")),
+                Double.parseDouble(options.getOrDefault("premiere", "0.8")),
+                Long.parseLong(options.getOrDefault("seed", "1")));
+        driver.prepare();
+        driver.run();
+        driver.printReport();
+    }
+
+    /**
+     * Loads the sample catalog, registers the client accounts and adds generated showtimes,
+     * including a premiere (the first movie's first day).
+     */
+    public void prepare() {
+        long begin = System.nanoTime();
+        Client.loadSampleClients();
+        // Hashing is slow on purpose, so all accounts share one precomputed hash.
+        String passwordHash = Credentials.hash(PASSWORD);
+        for (int i = 0; i < accounts; i++) {
+            Client.registerClient(Client.createDetached(username(i), passwordHash, username(i) + "@example.com"));
+        }
+        CatalogService.ensureLoaded();
+
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        LargeDatasetGenerator generator = new LargeDatasetGenerator(seed, 1, LargeDatasetGenerator.DEFAULT_ROOMS_PER_SITE,
+                20, 0, extraShowtimes, firstDay, LargeDatasetGenerator.DEFAULT_BATCH_SIZE, ForkJoinPool.commonPool());
+        for (Movie movie : generator.getMovies()) CatalogService.addMovie(movie);
+        generator.generate(batch -> {
+            for (Showtime showtime : batch.getShowtimes()) Showtime.register(showtime);
+        });
+        Movie premiereMovie = generator.getMovies().get(0);
+        premiere = new ArrayList<>();
+        for (Showtime showtime : Showtime.getShowtimesForMovie(premiereMovie)) {
+            if (!showtime.getDate().equals(firstDay)) break;
+            premiere.add(showtime);
+        }
+        System.out.printf("Prepared %d accounts, %d movies, %d showtimes (%d premiere showings) in %d ms%n",
+                accounts, CatalogService.getSnapshot().getMovies().size(), Showtime.getAllShowtimes().size(),
+                premiere.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+    }
+
+    /**
+     * Starts the sessions at the configured arrival rate and waits for all of them.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void run() throws InterruptedException {
+        SplittableRandom arrivals = new SplittableRandom(seed);
+        long begin = System.nanoTime();
+        long due = begin;
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < customers; c++) {
+                // Exponential inter-arrival times give Poisson arrivals at the configured rate.
+                due += (long) (-Math.log(1 - arrivals.nextDouble()) / ratePerSecond * 1e9);
+                long wait = due - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+                SplittableRandom random = arrivals.split();
+                sessions.execute(() -> session(random));
+            }
+        }
+        elapsedNanos = System.nanoTime() - begin;
+    }
+
+    /**
+     * One customer: log in (or sign up), browse the movies and their showtimes, then book.
+     */
+    private void session(SplittableRandom random) {
+        if (random.nextDouble() < 0.01) {
+            measure(Operation.MANAGER_LOGIN, () -> verify(manager, "admin123"));
+        }
+        if (random.nextDouble() < signUpShare) {
+            long n = nextSignUp.incrementAndGet();
+            measure(Operation.SIGN_UP, () -> {
+                try {
+                    new Client("walkin" + seed + "-" + n, "secret" + n, "walkin" + n + "@example.com");
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            });
+        } else {
+            int account = random.nextInt(accounts);
+            measure(Operation.LOGIN, () -> {
+                return verify(Client.findClientByUsername(username(account)), PASSWORD);
+            });
+        }
+
+        List<Movie> movies = timed(Operation.LIST_MOVIES, () -> CatalogService.getSnapshot().getMovies());
+        Movie browsed = movies.get(random.nextInt(movies.size()));
+        Collection<Showtime> browsedShowtimes = timed(Operation.SHOWTIME_LOOKUP,
+                () -> List.copyOf(Showtime.getShowtimesForMovie(browsed)));
+
+        Showtime target;
+        if (!premiere.isEmpty() && random.nextDouble() < premiereShare) {
+            target = premiere.get(random.nextInt(premiere.size()));
+        } else if (!browsedShowtimes.isEmpty()) {
+            target = List.copyOf(browsedShowtimes).get(random.nextInt(browsedShowtimes.size()));
+        } else {
+            return;
+        }
+        int seats = 1 + random.nextInt(4);
+        int[] claimed = timed(Operation.RESERVE, () -> target.reserveBestAvailable(seats));
+        if (claimed == null) soldOut.increment();
+    }
+
+    /**
+     * Verifies a password on the credential pool, as the login view does.
+     * @return false if the password is wrong or the pool rejected the check
+     */
+    private static boolean verify(User user, String password) {
+        try {
+            return Credentials.verifyAsync(user, password).join();
+        } catch (CompletionException e) {
+            return false;
+        }
+    }
+
+    private void measure(Operation operation, BooleanSupplier call) {
+        if (!timed(operation, call::getAsBoolean)) failures.get(operation).increment();
+    }
+
+    private <T> T timed(Operation operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            latencies.get(operation).record(System.nanoTime() - start);
+        }
+    }
+
+    /** Prints throughput and latency percentiles per operation. */
+    public void printReport() {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%d customers in %.1f s (%.1f sessions/s), %d bookings sold out%n",
+                customers, seconds, customers / seconds, soldOut.sum());
+        System.out.printf("%-16s %9s %10s %10s %10s %10s %10s %8s%n",
+                "operation", "count", "ops/s", "p50 us", "p99 us", "p99.9 us", "max us", "failed");
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = latencies.get(operation);
+            long count = histogram.getCount();
+            if (count == 0) continue;
+            System.out.printf("%-16s %9d %10.1f %10.1f %10.1f %10.1f %10.1f %8d%n",
+                    operation, count, count / seconds,
+                    histogram.getValueAtQuantile(0.50) / 1e3, histogram.getValueAtQuantile(0.99) / 1e3,
+                    histogram.getValueAtQuantile(0.999) / 1e3, histogram.getMax() / 1e3,
+                    failures.get(operation).sum());
+        }
+        System.out.printf("Password checks: %d, avg %.1f ms, %d rejected; hashes: %d, avg %.1f ms%n",
+                Credentials.getVerificationCount(), Credentials.getAverageVerificationNanos() / 1e6,
+                Credentials.getRejectedCount(), Credentials.getHashCount(), Credentials.getAverageHashNanos() / 1e6);
+    }
+
+    /** @return latency histogram of an operation */
+    public LatencyHistogram getLatencies(Operation operation) { return latencies.get(operation); }
+
+    private static String username(int i) { return "customer" + i; }
+
+    /** Password of every generated account. */
+    private static final String PASSWORD = "pass-load";
+}
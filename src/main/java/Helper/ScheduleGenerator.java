@@ -0,0 +1,196 @@
+package Helper;
+
+import model.Movie;
+import model.Room;
+import model.Showtime;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Generates a conflict-free schedule of {@link Showtime}s for a range of days.
+ * <p>
+ * The schedule is split into independent cells, one per room and day. Showings never
+ * cross the closing time, so two cells can never overlap and each cell is filled
+ * greedily without looking at the others. Each movie's target is spread evenly over
+ * the days, and cells are processed in parallel with fork/join; the only shared
+ * state is the remaining demand per movie and day, which is claimed with atomic
+ * decrements.
+ * <p>
+ * Generated showtimes are not registered; pass them to {@link Showtime#register(Showtime)}
+ * (or check them with {@link Showtime#findConflicts}) when importing.
+ */
+public class ScheduleGenerator {
+
+    /** Cells handled by one task before it stops splitting. */
+    private static final int CELLS_PER_TASK = 4;
+
+    /** Earliest start time of a showing. */
+    private final LocalTime opening;
+    /** Minute of the day by which every showing must have ended (1440 = midnight). */
+    private final int closingMinute;
+    /** Start times are rounded up to a multiple of this many minutes. */
+    private final int stepMinutes;
+    /** Pool running the cell tasks. */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a generator using the common fork/join pool and 5-minute start granularity.
+     * @param opening earliest start time
+     * @param closing time by which the last showing must end; {@code LocalTime.MIDNIGHT} for end of day
+     */
+    public ScheduleGenerator(LocalTime opening, LocalTime closing) {
+        this(opening, closing, 5, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param opening earliest start time
+     * @param closing time by which the last showing must end; {@code LocalTime.MIDNIGHT} for end of day
+     * @param stepMinutes start time granularity in minutes (&gt; 0)
+     * @param pool fork/join pool to run on
+     * @throws IllegalArgumentException if the opening hours or step are invalid
+     */
+    public ScheduleGenerator(LocalTime opening, LocalTime closing, int stepMinutes, ForkJoinPool pool) {
+        int closingMinute = closing.equals(LocalTime.MIDNIGHT) ? 24 * 60 : closing.toSecondOfDay() / 60;
+        if (closingMinute <= opening.toSecondOfDay() / 60) throw new IllegalArgumentException("Closing must be after opening");
+        if (stepMinutes <= 0) throw new IllegalArgumentException("Step must be positive");
+        this.opening = opening;
+        this.closingMinute = closingMinute;
+        this.stepMinutes = stepMinutes;
+        this.pool = pool;
+    }
+
+    /**
+     * Result of a generation run.
+     */
+    public static class Result {
+        private final List<Showtime> showtimes;
+        private final Map<Movie, Integer> unscheduled;
+
+        public Result(List<Showtime> showtimes, Map<Movie, Integer> unscheduled) {
+            this.showtimes = showtimes;
+            this.unscheduled = unscheduled;
+        }
+
+        /** @return generated showtimes in chronological order */
+        public List<Showtime> getShowtimes() { return showtimes; }
+        /** @return movies whose target could not be met, with the missing count */
+        public Map<Movie, Integer> getUnscheduled() { return unscheduled; }
+    }
+
+    /**
+     * Builds a schedule.
+     * @param movies movie catalog
+     * @param rooms rooms to use; each showing gets the room's capacity
+     * @param targets number of showings wanted per movie (movies without an entry get none)
+     * @param firstDay first day of the schedule
+     * @param days number of consecutive days
+     * @return generated showtimes and the demand that did not fit
+     */
+    public Result generate(List<Movie> movies, List<Room> rooms, Map<Movie, Integer> targets, LocalDate firstDay, int days) {
+        if (days <= 0 || rooms.isEmpty() || movies.isEmpty()) return new Result(new ArrayList<>(), Map.of());
+        // Demand of movie i on day d lives at d * movies + i; the remainder of the split goes to the first days.
+        AtomicIntegerArray remaining = new AtomicIntegerArray(days * movies.size());
+        for (int i = 0; i < movies.size(); i++) {
+            int target = Math.max(0, targets.getOrDefault(movies.get(i), 0));
+            for (int d = 0; d < days; d++) remaining.set(d * movies.size() + i, target / days + (d < target % days ? 1 : 0));
+        }
+
+        Plan plan = new Plan(movies, rooms, firstDay, days, remaining, Showtime.getCleaningBufferMinutes(),
+                opening.toSecondOfDay() / 60, closingMinute, stepMinutes);
+        CellTask root = new CellTask(plan, 0, rooms.size() * days);
+        List<Showtime> showtimes = pool.invoke(root);
+        Collections.sort(showtimes);
+
+        Map<Movie, Integer> unscheduled = new LinkedHashMap<>();
+        for (int i = 0; i < movies.size(); i++) {
+            int missing = 0;
+            for (int d = 0; d < days; d++) missing += remaining.get(d * movies.size() + i);
+            if (missing > 0) unscheduled.put(movies.get(i), missing);
+        }
+        return new Result(showtimes, unscheduled);
+    }
+
+    /** Inputs shared by all cell tasks of one run; times are minutes of the day. */
+    private record Plan(List<Movie> movies, List<Room> rooms, LocalDate firstDay, int days,
+                        AtomicIntegerArray remaining, int bufferMinutes,
+                        int openingMinute, int closingMinute, int stepMinutes) { }
+
+    /**
+     * Fills the cells {@code [from, to)}; cell {@code c} is room {@code c % rooms}, day {@code c / rooms}.
+     * Tasks are never serialized, so the plan they share need not be.
+     */
+    @SuppressWarnings("serial")
+    private static class CellTask extends RecursiveTask<List<Showtime>> {
+        private final Plan plan;
+        private final int from;
+        private final int to;
+
+        CellTask(Plan plan, int from, int to) {
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Showtime> compute() {
+            if (to - from <= CELLS_PER_TASK) {
+                List<Showtime> result = new ArrayList<>();
+                for (int cell = from; cell < to; cell++) fillCell(cell, result);
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            CellTask left = new CellTask(plan, from, mid);
+            left.fork();
+            List<Showtime> right = new CellTask(plan, mid, to).compute();
+            List<Showtime> result = left.join();
+            result.addAll(right);
+            return result;
+        }
+
+        /** Packs one room-day greedily, always taking the movie with the most unmet demand that still fits. */
+        private void fillCell(int cell, List<Showtime> out) {
+            Room room = plan.rooms().get(cell % plan.rooms().size());
+            int day = cell / plan.rooms().size();
+            LocalDate date = plan.firstDay().plusDays(day);
+            int base = day * plan.movies().size();
+            List<Movie> movies = plan.movies();
+            AtomicIntegerArray remaining = plan.remaining();
+            int closingMinute = plan.closingMinute();
+            int minute = roundUp(plan.openingMinute());
+            while (minute < closingMinute) {
+                int best = -1;
+                int bestRemaining = 0;
+                // Start the scan at a different movie per cell so ties do not all go to the first title.
+                for (int k = 0; k < movies.size(); k++) {
+                    int i = (k + cell) % movies.size();
+                    int left = remaining.get(base + i);
+                    if (left > bestRemaining && minute + movies.get(i).getDurationMinutes() <= closingMinute) {
+                        best = i;
+                        bestRemaining = left;
+                    }
+                }
+                if (best < 0) return;
+                if (remaining.compareAndSet(base + best, bestRemaining, bestRemaining - 1)) {
+                    Movie movie = movies.get(best);
+                    String time = LocalTime.ofSecondOfDay(minute * 60L).toString();
+                    out.add(new Showtime(movie, date, time, room.getLabel(), room.getCapacity()));
+                    minute = roundUp(minute + movie.getDurationMinutes() + plan.bufferMinutes());
+                }
+            }
+        }
+
+        private int roundUp(int minute) {
+            int step = plan.stepMinutes();
+            return (minute + step - 1) / step * step;
+        }
+    }
+}
@@ -1,17 +1,69 @@
 package Helper;
 
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Switches between application views and caches them.
+ * <p>
+ * Each FXML file is parsed once; its {@link Scene} and controller are kept and reused on
+ * later switches. Controllers that implement {@link Resettable} are reset every time their
+ * cached view is shown again, so no stale input survives. Must be used on the JavaFX
+ * Application Thread.
+ * <p>
+ * Set {@code -Dcinema.view.timing=true} to log how long each view took to show.
+ */
 public class ViewSwitcher {
     public static final String LOGIN_VIEW = "/com/example/finalprojectoop/ClientLogin-view.fxml";
     public static final String SIGNUP_VIEW = "/com/example/finalprojectoop/ClientSignUp-view.fxml";
     public static final String CLIENT_MOVIE_LIST_VIEW = "/com/example/finalprojectoop/ClientMovieList-view.fxml";
     public static final String MANAGER_VIEW =  "/com/example/finalprojectoop/cinema-view.fxml";
     public static final String DETAIL_VIEW_FXML = "/com/example/finalprojectoop/ClientMovie-view.fxml";
+    public static final String MOVIE_FORM_VIEW = "/com/example/finalprojectoop/movie-form.fxml";
+    public static final String SHOWTIME_FORM_VIEW = "/com/example/finalprojectoop/showtime-form.fxml";
+
+    /**
+     * Implemented by controllers whose cached view must be cleared before it is shown again.
+     */
+    public interface Resettable {
+        /** Called on the FX thread each time the cached view is reused. */
+        void resetView();
+    }
+
+    /**
+     * A parsed view: its scene and its controller.
+     */
+    public static final class CachedView {
+        private final Scene scene;
+        private final Object controller;
+
+        private CachedView(Scene scene, Object controller) {
+            this.scene = scene;
+            this.controller = controller;
+        }
+
+        /** @return the reusable scene of this view */
+        public Scene getScene() { return scene; }
+
+        /** @return the view's controller */
+        @SuppressWarnings("unchecked")
+        public <T> T getController() { return (T) controller; }
+    }
+
+    /** Whether to log the time taken by each view switch. */
+    private static final boolean LOG_TIMING = Boolean.getBoolean("cinema.view.timing");
+
+    /** Parsed views by FXML path; only touched on the FX thread. */
+    private static final Map<String, CachedView> CACHE = new HashMap<>();
 
     /**
      * Replaces the content of the current window with a new view.
@@ -20,10 +72,8 @@ public class ViewSwitcher {
      */
     public static void switchView(Stage stage, String fxmlFile) {
         try {
-            FXMLLoader fxmlLoader = new FXMLLoader(ViewSwitcher.class.getResource(fxmlFile));
-            Parent root = fxmlLoader.load();
-            Scene scene = new Scene(root);
-            stage.setScene(scene);
+            CachedView view = getView(fxmlFile);
+            stage.setScene(view.getScene());
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
@@ -31,4 +81,78 @@ public class ViewSwitcher {
             System.out.println("Could not load view: " + fxmlFile);
         }
     }
+
+    /**
+     * Returns the cached view for an FXML file, parsing it on first use.
+     * A reused view's controller is reset if it implements {@link Resettable}.
+     * @param fxmlFile path of the FXML file
+     * @return scene and controller of the view
+     * @throws IOException if the FXML cannot be loaded
+     */
+    public static CachedView getView(String fxmlFile) throws IOException {
+        return getView(fxmlFile, -1, -1);
+    }
+
+    /**
+     * Returns the cached view for an FXML file, creating its scene with the given size on first use.
+     * @param fxmlFile path of the FXML file
+     * @param width scene width for a cold load, or -1 for the preferred width
+     * @param height scene height for a cold load, or -1 for the preferred height
+     * @return scene and controller of the view
+     * @throws IOException if the FXML cannot be loaded
+     */
+    public static CachedView getView(String fxmlFile, double width, double height) throws IOException {
+        long begin = System.nanoTime();
+        CachedView view = CACHE.get(fxmlFile);
+        boolean cold = view == null;
+        if (cold) {
+            view = load(fxmlFile, width, height);
+            CACHE.put(fxmlFile, view);
+        } else if (view.controller instanceof Resettable resettable) {
+            resettable.resetView();
+        }
+        if (LOG_TIMING) {
+            System.out.printf("View %s (%s): %.2f ms%n", fxmlFile.substring(fxmlFile.lastIndexOf('/') + 1),
+                    cold ? "cold" : "warm", (System.nanoTime() - begin) / 1_000_000.0);
+        }
+        return view;
+    }
+
+    /**
+     * Parses views ahead of time, one per FX pulse, so the UI stays responsive while warming up.
+     * Views that are already cached are skipped.
+     * @param fxmlFiles paths of the FXML files to prepare
+     */
+    public static void prewarm(String... fxmlFiles) {
+        Deque<String> pending = new ArrayDeque<>(Arrays.asList(fxmlFiles));
+        Platform.runLater(() -> prewarmNext(pending));
+    }
+
+    private static void prewarmNext(Deque<String> pending) {
+        String fxmlFile = pending.poll();
+        if (fxmlFile == null) return;
+        if (!CACHE.containsKey(fxmlFile)) {
+            try {
+                CACHE.put(fxmlFile, load(fxmlFile, -1, -1));
+            } catch (IOException e) {
+                System.out.println("Could not prewarm view: " + fxmlFile);
+            }
+        }
+        Platform.runLater(() -> prewarmNext(pending));
+    }
+
+    /**
+     * Drops a cached view so the next switch parses it again.
+     * @param fxmlFile path of the FXML file
+     */
+    public static void invalidate(String fxmlFile) {
+        CACHE.remove(fxmlFile);
+    }
+
+    private static CachedView load(String fxmlFile, double width, double height) throws IOException {
+        FXMLLoader fxmlLoader = new FXMLLoader(ViewSwitcher.class.getResource(fxmlFile));
+        Parent root = fxmlLoader.load();
+        Scene scene = new Scene(root, width, height);
+        return new CachedView(scene, fxmlLoader.getController());
+    }
 }
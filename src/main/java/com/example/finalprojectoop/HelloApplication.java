@@ -1,7 +1,8 @@
 package com.example.finalprojectoop;
 
+import Helper.AppBootstrap;
+import Helper.ViewSwitcher;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
@@ -10,10 +11,17 @@ import java.io.IOException;
 public class HelloApplication extends Application {
     @Override
     public void start(Stage stage) throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(HelloApplication.class.getResource("ClientLogin-view.fxml"));
-        Scene scene = new Scene(fxmlLoader.load(), 720, 540);
+        // Load accounts and catalog in the background while the login screen shows.
+        AppBootstrap.start();
+
+        Scene scene = ViewSwitcher.getView(ViewSwitcher.LOGIN_VIEW, 720, 540).getScene();
         stage.setTitle("MY-M0V!E-T1M3");
         stage.setScene(scene);
         stage.show();
+
+        // Parse the remaining views after the first frame so later switches are warm.
+        ViewSwitcher.prewarm(ViewSwitcher.SIGNUP_VIEW, ViewSwitcher.CLIENT_MOVIE_LIST_VIEW,
+                ViewSwitcher.DETAIL_VIEW_FXML, ViewSwitcher.MANAGER_VIEW,
+                ViewSwitcher.MOVIE_FORM_VIEW, ViewSwitcher.SHOWTIME_FORM_VIEW);
     }
 }
@@ -0,0 +1,95 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free Bloom filter over strings.
+ * <p>
+ * {@link #mightContain(String)} never returns {@code false} for an added key, and returns
+ * {@code true} for a key that was not added with roughly the configured false-positive rate
+ * while no more than the expected number of keys have been added. Keys cannot be removed.
+ * Bits are set with atomic OR, so adds and lookups may run concurrently.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    /** Number of bits minus one; the bit count is a power of two. */
+    private final long mask;
+    private final int hashes;
+    private final long expectedKeys;
+    private final LongAdder added = new LongAdder();
+
+    /**
+     * @param expectedKeys number of keys the filter is sized for (&gt; 0)
+     * @param falsePositiveRate target false-positive rate at that size, between 0 and 1
+     */
+    BloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys <= 0) throw new IllegalArgumentException("Expected keys must be positive");
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+        double optimalBits = -expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long bits = Long.highestOneBit(Math.max(64, (long) Math.ceil(optimalBits)) - 1) << 1;
+        if (bits / 64 > Integer.MAX_VALUE) throw new IllegalArgumentException("Filter too large");
+        this.words = new AtomicLongArray((int) (bits / 64));
+        this.mask = bits - 1;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedKeys * Math.log(2)));
+        this.expectedKeys = expectedKeys;
+    }
+
+    /**
+     * Adds a key.
+     * @param key key to add
+     */
+    void add(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            int word = (int) (bit >>> 6);
+            long flag = 1L << bit;
+            long current = words.get(word);
+            while ((current & flag) == 0) {
+                long witness = words.compareAndExchange(word, current, current | flag);
+                if (witness == current) break;
+                current = witness;
+            }
+        }
+        added.increment();
+    }
+
+    /**
+     * @param key key to test
+     * @return {@code false} if the key was definitely never added
+     */
+    boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /** @return true once more keys were added than the filter was sized for */
+    boolean isSaturated() { return added.sum() > expectedKeys; }
+
+    /** @return number of keys the filter was sized for */
+    long getExpectedKeys() { return expectedKeys; }
+
+    /** 64-bit FNV-1a over the UTF-16 chars, finished with a SplitMix64 mix. */
+    private static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
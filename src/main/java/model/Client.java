@@ -1,6 +1,5 @@
 package model;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -8,11 +7,12 @@ import java.util.List;
  */
 public class Client implements User {
 
-    private static final List<Client> registeredClients = new ArrayList<>();
+    private static final ClientRegistry registeredClients = new ClientRegistry();
 
 
     private String username;
-    private String password;
+    /** Salted password hash, see {@link Credentials}. */
+    private volatile String password;
     private String email;
 
     /**
@@ -28,7 +28,7 @@ public class Client implements User {
         if (username == null || username.isBlank())
             throw new IllegalArgumentException("Username cannot be empty");
 
-        if (findClientByUsername(username) != null) {
+        if (!isUsernameAvailable(username)) {
             throw new IllegalArgumentException("Username is already taken.");
         }
 
@@ -39,24 +39,50 @@ public class Client implements User {
             throw new IllegalArgumentException("Invalid email format.");
 
         this.username = username;
-        this.password = password;
+        this.password = Credentials.hash(password);
         this.email = email;
 
-        registeredClients.add(this);
+        // Atomic re-check: another sign-up may have claimed the name since the lookup above.
+        if (!registeredClients.register(this)) {
+            throw new IllegalArgumentException("Username is already taken.");
+        }
     }
 
+    /**
+     * Looks up a registered client by username in constant time.
+     * @param username username to search for
+     * @return the client, or {@code null} if none is registered
+     */
     public static Client findClientByUsername(String username) {
-        for (Client client : registeredClients) {
-            if (client.getUsername().equals(username)) {
-                return client;
-            }
-        }
-        return null;
+        return registeredClients.findByUsername(username);
+    }
+
+    /**
+     * Checks whether a username is still free. Most free names are confirmed by the
+     * registry's Bloom filter alone; only possible matches are looked up.
+     * @param username username to check
+     * @return {@code true} if no client is registered under this name
+     */
+    public static boolean isUsernameAvailable(String username) {
+        return !registeredClients.mightContainUsername(username) || findClientByUsername(username) == null;
+    }
+
+    /**
+     * Looks up a registered client by email address in constant time.
+     * @param email email to search for
+     * @return the client, or {@code null} if none is registered
+     */
+    public static Client findClientByEmail(String email) {
+        return registeredClients.findByEmail(email);
     }
 
+    /**
+     * Adds a client to the registry. Registering an already registered client is a no-op.
+     * @param client client to register
+     */
     public static void registerClient(Client client) {
         if (client != null) {
-            registeredClients.add(client);
+            registeredClients.register(client);
         }
     }
 
@@ -67,24 +93,42 @@ public class Client implements User {
     public static void loadSampleClients() {
         registeredClients.clear();
 
-        registeredClients.add(createClientWithoutValidation("Alice Martin", "pass123", "alice@email.com"));
-        registeredClients.add(createClientWithoutValidation("Bob Chen", "secure456", "bob@email.com"));
-        registeredClients.add(createClientWithoutValidation("Clara Dupont", "cinema789", "clara@email.com"));
-        registeredClients.add(createClientWithoutValidation("David Singh", "ticket321", "david@email.com"));
-        registeredClients.add(createClientWithoutValidation("client", "client123", "test@example.com"));
+        registeredClients.register(createClientWithoutValidation("Alice Martin", Credentials.hash("pass123"), "alice@email.com"));
+        registeredClients.register(createClientWithoutValidation("Bob Chen", Credentials.hash("secure456"), "bob@email.com"));
+        registeredClients.register(createClientWithoutValidation("Clara Dupont", Credentials.hash("cinema789"), "clara@email.com"));
+        registeredClients.register(createClientWithoutValidation("David Singh", Credentials.hash("ticket321"), "david@email.com"));
+        registeredClients.register(createClientWithoutValidation("client", Credentials.hash("client123"), "test@example.com"));
     }
 
+    /**
+     * Returns an immutable snapshot of all registered clients.
+     * The snapshot is shared between calls until the registry changes.
+     * @return immutable list of clients
+     */
     public static List<Client> getRegisteredClientsSnapshot() {
-        return new ArrayList<>(registeredClients);
+        return registeredClients.snapshot();
+    }
+
+    /**
+     * Creates a client that is not added to the registry, e.g. for bulk imports and
+     * generated datasets. No validation or duplicate check is done, and the password is
+     * taken as an already hashed value, so many clients can share one precomputed hash.
+     * @param username username
+     * @param passwordHash hash from {@link Credentials#hash(String)}
+     * @param email email address
+     * @return the new, unregistered client
+     */
+    public static Client createDetached(String username, String passwordHash, String email) {
+        return createClientWithoutValidation(username, passwordHash, email);
     }
 
     /**
      * Creates a client without duplicate validation (for sample data loading).
      */
-    private static Client createClientWithoutValidation(String username, String password, String email) {
+    private static Client createClientWithoutValidation(String username, String passwordHash, String email) {
         Client client = new Client();
         client.username = username;
-        client.password = password;
+        client.password = passwordHash;
         client.email = email;
         return client;
     }
@@ -98,6 +142,7 @@ public class Client implements User {
     @Override
     public String getUsername() { return username; }
 
+    /** @return the stored password hash */
     @Override
     public String getPassword() { return password; }
 
@@ -106,11 +151,23 @@ public class Client implements User {
     public void setEmail(String email) {
         if (email == null || !email.contains("@"))
             throw new IllegalArgumentException("Invalid email format.");
+        String oldEmail = this.email;
         this.email = email;
+        registeredClients.updateEmail(this, oldEmail, email);
     }
 
+    /**
+     * Checks a password against the stored hash. This is slow on purpose; prefer
+     * {@link Credentials#verifyAsync(User, String)} off the UI thread. A hash made with
+     * older settings is replaced after a successful check.
+     */
     @Override
     public boolean verifyPassword(String input) {
-        return password.equals(input);
+        String stored = password;
+        boolean matches = Credentials.verify(input, stored);
+        if (matches && Credentials.needsRehash(stored)) {
+            password = Credentials.hash(input);
+        }
+        return matches;
     }
 }
\ No newline at end of file
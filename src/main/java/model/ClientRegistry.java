@@ -0,0 +1,141 @@
+package model;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe store of all registered {@link Client} accounts.
+ * Clients are hashed by username (primary key) and by email (secondary index),
+ * so lookups are O(1) regardless of how many accounts exist.
+ * <p>
+ * Snapshots are immutable lists that are rebuilt only after the registry changes,
+ * so repeated calls between writes share the same list instead of copying it.
+ * <p>
+ * A {@link BloomFilter} of usernames sits in front of the primary index: a negative
+ * answer proves a name is free without touching the index. The filter is rebuilt with
+ * twice the capacity once it is full, keeping the false-positive rate near 1%.
+ */
+final class ClientRegistry {
+
+    /** Usernames the first Bloom filter is sized for. */
+    private static final int INITIAL_FILTER_CAPACITY = 1 << 16;
+    /** False-positive rate the filter is sized for at its capacity. */
+    private static final double FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+    /** Primary index: username to client. */
+    private final ConcurrentMap<String, Client> byUsername = new ConcurrentHashMap<>();
+    /** Secondary index: email to the first client registered with that email. */
+    private final ConcurrentMap<String, Client> byEmail = new ConcurrentHashMap<>();
+    /** Incremented after every write; used to detect stale snapshots. */
+    private final AtomicLong version = new AtomicLong();
+    /** Usernames that may be registered; rebuilt larger when saturated. */
+    private volatile BloomFilter usernames = new BloomFilter(INITIAL_FILTER_CAPACITY, FILTER_FALSE_POSITIVE_RATE);
+    /** Last published snapshot together with the version it was built from. */
+    private volatile Snapshot snapshot = new Snapshot(0, List.of());
+
+    /** Immutable list of clients tagged with the registry version it reflects. */
+    private record Snapshot(long version, List<Client> clients) { }
+
+    /**
+     * Finds a client by username.
+     * @param username username to look up
+     * @return matching client or {@code null}
+     */
+    Client findByUsername(String username) {
+        return username == null ? null : byUsername.get(username);
+    }
+
+    /**
+     * Fast availability check backed by the Bloom filter.
+     * @param username username to test
+     * @return {@code false} if the username is definitely not registered
+     */
+    boolean mightContainUsername(String username) {
+        return username != null && usernames.mightContain(username);
+    }
+
+    /**
+     * Finds a client by email address.
+     * @param email email to look up
+     * @return matching client or {@code null}
+     */
+    Client findByEmail(String email) {
+        return email == null ? null : byEmail.get(email);
+    }
+
+    /**
+     * Registers a client unless its username is already taken.
+     * Registering the same instance twice is a no-op.
+     * @param client client to add
+     * @return {@code true} if the client is (now) registered, {@code false} if another client owns the username
+     */
+    boolean register(Client client) {
+        Client existing = byUsername.putIfAbsent(client.getUsername(), client);
+        if (existing != null) return existing == client;
+        BloomFilter filter = usernames;
+        filter.add(client.getUsername());
+        if (filter.isSaturated()) growFilter(filter);
+        if (client.getEmail() != null) byEmail.putIfAbsent(client.getEmail(), client);
+        version.incrementAndGet();
+        ModelEvents.clientRegistered(client);
+        return true;
+    }
+
+    /**
+     * Replaces a saturated filter with one of twice the capacity holding every username.
+     * Names registered while the copy runs are added again after it is published, so the
+     * new filter never misses a registered name.
+     */
+    private synchronized void growFilter(BloomFilter full) {
+        if (usernames != full) return;
+        BloomFilter grown = new BloomFilter(Math.max(full.getExpectedKeys() * 2, byUsername.size() * 2L), FILTER_FALSE_POSITIVE_RATE);
+        for (String username : byUsername.keySet()) grown.add(username);
+        usernames = grown;
+        for (String username : byUsername.keySet()) {
+            if (!grown.mightContain(username)) grown.add(username);
+        }
+    }
+
+    /**
+     * Moves a registered client from its old email key to the new one.
+     * @param client client whose email changed
+     * @param oldEmail previous email
+     * @param newEmail new email
+     */
+    void updateEmail(Client client, String oldEmail, String newEmail) {
+        if (byUsername.get(client.getUsername()) != client) return;
+        if (oldEmail != null) byEmail.remove(oldEmail, client);
+        byEmail.putIfAbsent(newEmail, client);
+        version.incrementAndGet();
+        ModelEvents.clientUpdated(client);
+    }
+
+    /** Removes every client from the registry. */
+    void clear() {
+        byUsername.clear();
+        byEmail.clear();
+        usernames = new BloomFilter(INITIAL_FILTER_CAPACITY, FILTER_FALSE_POSITIVE_RATE);
+        version.incrementAndGet();
+    }
+
+    /** @return number of registered clients */
+    int size() { return byUsername.size(); }
+
+    /**
+     * Returns an immutable list of all clients. The list is cached and only
+     * rebuilt when the registry changed since the last call.
+     * @return immutable snapshot of registered clients
+     */
+    List<Client> snapshot() {
+        long current = version.get();
+        Snapshot cached = snapshot;
+        if (cached.version() == current) return cached.clients();
+        // Tagged with the version read before copying: a concurrent write bumps the
+        // version afterwards, so the next call rebuilds instead of serving stale data.
+        List<Client> clients = List.copyOf(byUsername.values());
+        snapshot = new Snapshot(current, clients);
+        return clients;
+    }
+}
@@ -0,0 +1,175 @@
+package model;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Password hashing and verification for all users.
+ * <p>
+ * New hashes use the configured {@link PasswordHasher}; stored hashes are verified with the
+ * algorithm named in their prefix, so hashes made with older settings keep working and can
+ * be upgraded with {@link #needsRehash(String)}. Verification is deliberately slow, so
+ * {@link #verifyAsync(User, String)} runs it on a small bounded pool: a login burst queues up
+ * there (or is rejected when the queue is full) instead of taking every thread.
+ * <p>
+ * Tuned with system properties:
+ * <ul>
+ *   <li>{@code cinema.password.iterations}: PBKDF2 cost (default {@value Pbkdf2PasswordHasher#DEFAULT_ITERATIONS})</li>
+ *   <li>{@code cinema.password.threads}: verification threads (default: half the processors)</li>
+ *   <li>{@code cinema.password.queue}: pending verifications before rejecting (default 1024)</li>
+ * </ul>
+ */
+public final class Credentials {
+
+    private Credentials() { /* static service, no instantiation */ }
+
+    /** Known algorithms by id. */
+    private static final Map<String, PasswordHasher> HASHERS = new ConcurrentHashMap<>();
+    /** Algorithm for new hashes. */
+    private static volatile PasswordHasher current;
+    /** Hash checked for unknown usernames, so they take as long to reject as a wrong password. */
+    private static volatile String dummyHash;
+
+    private static final LongAdder VERIFICATIONS = new LongAdder();
+    private static final LongAdder VERIFICATION_NANOS = new LongAdder();
+    private static final LongAdder HASHES = new LongAdder();
+    private static final LongAdder HASH_NANOS = new LongAdder();
+    private static final LongAdder REJECTED = new LongAdder();
+
+    /** Bounded pool for {@link #verifyAsync}; daemon threads, so it never blocks exit. */
+    private static final ThreadPoolExecutor VERIFY_POOL;
+
+    static {
+        setHasher(new Pbkdf2PasswordHasher(Integer.getInteger("cinema.password.iterations", Pbkdf2PasswordHasher.DEFAULT_ITERATIONS)));
+        int threads = Integer.getInteger("cinema.password.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        int queue = Integer.getInteger("cinema.password.queue", 1024);
+        AtomicInteger counter = new AtomicInteger();
+        VERIFY_POOL = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue), runnable -> {
+            Thread thread = new Thread(runnable, "password-verify-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Makes an algorithm available for verification and uses it for new hashes.
+     * @param hasher algorithm to use
+     */
+    public static void setHasher(PasswordHasher hasher) {
+        if (hasher == null) throw new IllegalArgumentException("Hasher cannot be null");
+        HASHERS.put(hasher.getAlgorithm(), hasher);
+        dummyHash = hasher.hash("unknown-user");
+        current = hasher;
+    }
+
+    /** @return algorithm used for new hashes */
+    public static PasswordHasher getHasher() { return current; }
+
+    /**
+     * Hashes a password with the current algorithm and cost.
+     * @param password plaintext password
+     * @return stored hash
+     */
+    public static String hash(String password) {
+        long begin = System.nanoTime();
+        try {
+            return current.hash(password);
+        } finally {
+            HASHES.increment();
+            HASH_NANOS.add(System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * Checks a password against a stored hash on the calling thread.
+     * @param password entered password
+     * @param storedHash stored hash
+     * @return true if the password matches; false for unknown or malformed hashes
+     */
+    public static boolean verify(String password, String storedHash) {
+        long begin = System.nanoTime();
+        try {
+            PasswordHasher hasher = hasherOf(storedHash);
+            return hasher != null && hasher.verify(password, storedHash);
+        } catch (IllegalArgumentException e) {
+            return false;
+        } finally {
+            VERIFICATIONS.increment();
+            VERIFICATION_NANOS.add(System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * Checks a user's password on the verification pool. For an unknown user a fixed dummy
+     * hash is checked instead, so the answer takes as long as for a wrong password.
+     * @param user user to check, may be {@code null} (completes with {@code false})
+     * @param password entered password
+     * @return future completing with the result, or failing with
+     *         {@link RejectedExecutionException} when too many checks are pending
+     */
+    public static CompletableFuture<Boolean> verifyAsync(User user, String password) {
+        String dummy = dummyHash;
+        try {
+            if (user == null) {
+                return CompletableFuture.supplyAsync(() -> {
+                    verify(password, dummy);
+                    return false;
+                }, VERIFY_POOL);
+            }
+            return CompletableFuture.supplyAsync(() -> user.verifyPassword(password), VERIFY_POOL);
+        } catch (RejectedExecutionException e) {
+            REJECTED.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many logins in progress, please try again.", e));
+        }
+    }
+
+    /**
+     * @param storedHash stored hash
+     * @return true if it should be replaced by a hash with the current algorithm and cost
+     */
+    public static boolean needsRehash(String storedHash) {
+        PasswordHasher hasher = hasherOf(storedHash);
+        try {
+            return hasher != current || hasher.needsRehash(storedHash);
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    /** @return number of password verifications so far */
+    public static long getVerificationCount() { return VERIFICATIONS.sum(); }
+
+    /** @return average time of one verification in nanoseconds, or 0 if none */
+    public static double getAverageVerificationNanos() {
+        long count = VERIFICATIONS.sum();
+        return count == 0 ? 0 : (double) VERIFICATION_NANOS.sum() / count;
+    }
+
+    /** @return number of hashes computed so far */
+    public static long getHashCount() { return HASHES.sum(); }
+
+    /** @return average time of one hash in nanoseconds, or 0 if none */
+    public static double getAverageHashNanos() {
+        long count = HASHES.sum();
+        return count == 0 ? 0 : (double) HASH_NANOS.sum() / count;
+    }
+
+    /** @return verifications rejected because the pool queue was full */
+    public static long getRejectedCount() { return REJECTED.sum(); }
+
+    /** @return verifications waiting for a pool thread */
+    public static int getPendingCount() { return VERIFY_POOL.getQueue().size(); }
+
+    private static PasswordHasher hasherOf(String storedHash) {
+        if (storedHash == null) return null;
+        int end = storedHash.indexOf('$');
+        return end < 0 ? null : HASHERS.get(storedHash.substring(0, end));
+    }
+}
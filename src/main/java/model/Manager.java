@@ -12,8 +12,8 @@ public class Manager implements User {
     /** The immutable username for the manager account. */
     private final String username = "admin";
 
-    /** The immutable password for the manager account. */
-    private final String password = "admin123";
+    /** Hash of the fixed manager password ("admin123"), computed once on first use. */
+    private static volatile String passwordHash;
 
     /**
      * Gets the fixed username for the manager ("admin").
@@ -23,11 +23,20 @@ public class Manager implements User {
     public String getUsername() { return username; }
 
     /**
-     * Gets the fixed password for the manager ("admin123").
-     * @return The manager's password.
+     * Gets the stored hash of the fixed manager password.
+     * @return The manager's password hash.
      */
     @Override
-    public String getPassword() { return password; }
+    public String getPassword() {
+        String hash = passwordHash;
+        if (hash == null) {
+            synchronized (Manager.class) {
+                hash = passwordHash;
+                if (hash == null) passwordHash = hash = Credentials.hash("admin123");
+            }
+        }
+        return hash;
+    }
 
     /**
      * Verifies if the provided input string matches the fixed manager password.
@@ -36,6 +45,6 @@ public class Manager implements User {
      */
     @Override
     public boolean verifyPassword(String input) {
-        return password.equals(input);
+        return Credentials.verify(input, getPassword());
     }
 }
@@ -20,7 +20,7 @@ import java.util.UUID;
  */
 public abstract class Media {
     /** Unique immutable identifier generated at construction time. */
-    private final String id = UUID.randomUUID().toString();
+    private final String id;
     /** Human-readable title of the media item. */
     private String title;
     /** Genre/category (e.g., Action, Comedy). */
@@ -36,6 +36,20 @@ public abstract class Media {
      * @throws IllegalArgumentException if title empty or duration negative
      */
     protected Media(String title, String genre, int durationMinutes) {
+        this(UUID.randomUUID().toString(), title, genre, durationMinutes);
+    }
+
+    /**
+     * Recreates a media item with a known identifier, e.g. when loading saved data.
+     * @param id identifier of the saved item
+     * @param title  non-empty title
+     * @param genre  genre label
+     * @param durationMinutes duration in minutes (must be >= 0)
+     * @throws IllegalArgumentException if id or title empty or duration negative
+     */
+    protected Media(String id, String title, String genre, int durationMinutes) {
+        if (id == null || id.isBlank()) throw new IllegalArgumentException("Id cannot be empty");
+        this.id = id;
         if (title == null || title.isBlank()) throw new IllegalArgumentException("Title cannot be empty");
         if (durationMinutes < 0) throw new IllegalArgumentException("Duration cannot be negative");
         this.title = title;
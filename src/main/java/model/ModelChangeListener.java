@@ -0,0 +1,43 @@
+package model;
+
+/**
+ * Receives every change to the shared model state: client accounts, the movie catalog,
+ * the showtime schedule and seat reservations.
+ * <p>
+ * Callbacks run synchronously on the thread making the change, often while a buyer or the
+ * FX thread waits, so implementations must be fast and thread-safe (e.g. hand the event to
+ * a queue). A callback must not throw.
+ */
+public interface ModelChangeListener {
+
+    /** A client account was added to the registry. */
+    default void clientRegistered(Client client) { }
+
+    /** A registered client's email changed. */
+    default void clientUpdated(Client client) { }
+
+    /** A movie is about to be published in the catalog. */
+    default void movieAdded(Movie movie) { }
+
+    /** A movie was removed from the catalog. */
+    default void movieRemoved(Movie movie) { }
+
+    /** A showtime is about to be added to the schedule. */
+    default void showtimeScheduled(Showtime showtime) { }
+
+    /** A scheduled showtime's movie, date, time or room changed. */
+    default void showtimeUpdated(Showtime showtime) { }
+
+    /** A showtime was removed from the schedule. */
+    default void showtimeRemoved(Showtime showtime) { }
+
+    /**
+     * Seats of a scheduled showtime were reserved or released.
+     * @param showtime the showtime
+     * @param delta seats reserved (positive) or released (negative)
+     * @param seatIndexes specific seats taken or freed, or {@code null} for a count-only change
+     * @param version seat version after the change; increases with every change of the showtime
+     * @param available seats available after the change
+     */
+    default void seatsChanged(Showtime showtime, int delta, int[] seatIndexes, int version, int available) { }
+}
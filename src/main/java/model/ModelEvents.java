@@ -0,0 +1,124 @@
+package model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dispatches model changes to the registered {@link ModelChangeListener}s.
+ * <p>
+ * Used by the model classes and by the catalog service. Listeners are kept in a
+ * copy-on-write list, so firing an event with no listeners costs one volatile read.
+ * Changes made inside {@link #runSilently(Runnable)} (e.g. while replaying a journal)
+ * are not reported.
+ * <p>
+ * New movies and showtimes are reported just before they become visible, so that listeners
+ * see them before anything that refers to them. Such changes are wrapped in
+ * {@link #beginPendingChange()} / {@link #endPendingChange()}, and
+ * {@link #awaitPendingChanges(long)} lets a snapshot wait until every reported change is
+ * actually visible.
+ */
+public final class ModelEvents {
+
+    private ModelEvents() { /* static dispatcher, no instantiation */ }
+
+    private static final List<ModelChangeListener> LISTENERS = new CopyOnWriteArrayList<>();
+    /** Set while the current thread applies changes that must not be reported. */
+    private static final ThreadLocal<Boolean> SILENT = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    /** Changes that may have been reported but are not visible yet. */
+    private static final AtomicInteger PENDING = new AtomicInteger();
+
+    /** @param listener listener to add */
+    public static void addListener(ModelChangeListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener cannot be null");
+        LISTENERS.add(listener);
+    }
+
+    /** @param listener listener to remove */
+    public static void removeListener(ModelChangeListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Runs an action on the current thread without reporting the changes it makes.
+     * @param action changes to apply
+     */
+    public static void runSilently(Runnable action) {
+        boolean previous = SILENT.get();
+        SILENT.set(Boolean.TRUE);
+        try {
+            action.run();
+        } finally {
+            SILENT.set(previous);
+        }
+    }
+
+    /** Marks the start of a change that is reported before it becomes visible. */
+    public static void beginPendingChange() { PENDING.incrementAndGet(); }
+
+    /** Marks the end of a change started with {@link #beginPendingChange()}. */
+    public static void endPendingChange() { PENDING.decrementAndGet(); }
+
+    /**
+     * Waits until every change begun before this call has become visible. Such changes take
+     * microseconds, so this returns almost at once unless many run back to back.
+     * @param timeoutNanos maximum time to wait
+     * @return {@code false} if the timeout elapsed first
+     */
+    public static boolean awaitPendingChanges(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        // Seeing zero once is enough: every change begun earlier has finished by then.
+        while (PENDING.get() != 0) {
+            if (System.nanoTime() - deadline >= 0) return false;
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+        }
+        return true;
+    }
+
+    /** @return true if events are currently delivered to at least one listener */
+    public static boolean isActive() {
+        return !LISTENERS.isEmpty() && !SILENT.get();
+    }
+
+    /** Reports a newly registered client. */
+    public static void clientRegistered(Client client) {
+        if (isActive()) for (ModelChangeListener l : LISTENERS) l.clientRegistered(client);
+    }
+
+    /** Reports a changed client. */
+    public static void clientUpdated(Client client) {
+        if (isActive()) for (ModelChangeListener l : LISTENERS) l.clientUpdated(client);
+    }
+
+    /** Reports a movie about to be published. */
+    public static void movieAdded(Movie movie) {
+        if (isActive()) for (ModelChangeListener l : LISTENERS) l.movieAdded(movie);
+    }
+
+    /** Reports a removed movie. */
+    public static void movieRemoved(Movie movie) {
+        if (isActive()) for (ModelChangeListener l : LISTENERS) l.movieRemoved(movie);
+    }
+
+    /** Reports a showtime about to be scheduled. */
+    static void showtimeScheduled(Showtime showtime) {
+        if (isActive()) for (ModelChangeListener l : LISTENERS) l.showtimeScheduled(showtime);
+    }
+
+    /** Reports a rescheduled showtime. */
+    static void showtimeUpdated(Showtime showtime) {
+        if (isActive()) for (ModelChangeListener l : LISTENERS) l.showtimeUpdated(showtime);
+    }
+
+    /** Reports an unscheduled showtime. */
+    static void showtimeRemoved(Showtime showtime) {
+        if (isActive()) for (ModelChangeListener l : LISTENERS) l.showtimeRemoved(showtime);
+    }
+
+    /** Reports reserved or released seats. */
+    static void seatsChanged(Showtime showtime, int delta, int[] seatIndexes, int version, int available) {
+        if (isActive()) for (ModelChangeListener l : LISTENERS) l.seatsChanged(showtime, delta, seatIndexes, version, available);
+    }
+}
@@ -21,6 +21,24 @@ public class Movie extends Media {
         // (Assuming setters for director/year exist in Media or here, otherwise simpler to just set fields)
     }
 
+    private Movie(String id, String title, String genre, int durationMinutes, String rating) {
+        super(id, title, genre, durationMinutes);
+        this.rating = rating;
+    }
+
+    /**
+     * Recreates a saved movie with its original id, so saved showtimes still refer to it.
+     * @param id original id
+     * @param title title
+     * @param genre genre
+     * @param durationMinutes duration in minutes
+     * @param rating rating
+     * @return the restored movie
+     */
+    public static Movie restore(String id, String title, String genre, int durationMinutes, String rating) {
+        return new Movie(id, title, genre, durationMinutes, rating);
+    }
+
     /**
      * 3. PUBLIC STATIC ACCESS METHOD
      * This is the only way to get the Movie object.
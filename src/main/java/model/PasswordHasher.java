@@ -0,0 +1,40 @@
+package model;
+
+/**
+ * A salted password hashing algorithm.
+ * <p>
+ * Stored hashes are self-describing strings of the form {@code <algorithm>$<parameters...>},
+ * so {@link Credentials} can verify hashes produced by any registered algorithm or cost
+ * setting, and upgrade them after a successful login.
+ */
+public interface PasswordHasher {
+
+    /**
+     * @return algorithm id, used as the prefix of the stored hashes
+     */
+    String getAlgorithm();
+
+    /**
+     * Hashes a password with a new random salt and the current cost.
+     *
+     * @param password plaintext password
+     * @return stored hash
+     */
+    String hash(String password);
+
+    /**
+     * Checks a password against a stored hash of this algorithm, in constant time.
+     *
+     * @param password entered password
+     * @param storedHash hash produced by {@link #hash(String)}
+     * @return true if the password matches
+     * @throws IllegalArgumentException if the stored hash is malformed
+     */
+    boolean verify(String password, String storedHash);
+
+    /**
+     * @param storedHash hash produced by {@link #hash(String)}
+     * @return true if the hash uses weaker settings than the current ones
+     */
+    boolean needsRehash(String storedHash);
+}
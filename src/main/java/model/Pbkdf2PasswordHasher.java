@@ -0,0 +1,85 @@
+package model;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * PBKDF2 with HMAC-SHA256, using only the JDK.
+ * <p>
+ * Stored format: {@code pbkdf2-sha256$<iterations>$<salt base64>$<hash base64>}.
+ * The iteration count is the cost factor; raising it makes every guess (and every login)
+ * proportionally slower.
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    /** Algorithm id used as the hash prefix. */
+    public static final String ALGORITHM = "pbkdf2-sha256";
+    /** Iterations used unless configured otherwise. */
+    public static final int DEFAULT_ITERATIONS = 210_000;
+
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int iterations;
+
+    /**
+     * @param iterations PBKDF2 iteration count (&gt;= 1000)
+     */
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1000) throw new IllegalArgumentException("Iteration count must be at least 1000");
+        this.iterations = iterations;
+    }
+
+    /** @return iteration count of new hashes */
+    public int getIterations() { return iterations; }
+
+    @Override
+    public String getAlgorithm() { return ALGORITHM; }
+
+    @Override
+    public String hash(String password) {
+        if (password == null) throw new IllegalArgumentException("Password cannot be null");
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return ALGORITHM + "$" + iterations + "$" + base64.encodeToString(salt) + "$"
+                + base64.encodeToString(derive(password, salt, iterations));
+    }
+
+    @Override
+    public boolean verify(String password, String storedHash) {
+        if (password == null) return false;
+        String[] parts = split(storedHash);
+        byte[] salt = Base64.getDecoder().decode(parts[2]);
+        byte[] expected = Base64.getDecoder().decode(parts[3]);
+        return MessageDigest.isEqual(expected, derive(password, salt, Integer.parseInt(parts[1])));
+    }
+
+    @Override
+    public boolean needsRehash(String storedHash) {
+        return Integer.parseInt(split(storedHash)[1]) < iterations;
+    }
+
+    private static String[] split(String storedHash) {
+        String[] parts = storedHash == null ? new String[0] : storedHash.split("\\$");
+        if (parts.length != 4 || !ALGORITHM.equals(parts[0]))
+            throw new IllegalArgumentException("Not a " + ALGORITHM + " hash");
+        return parts;
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -21,6 +21,9 @@ public class Room {
     public void setRoomName(String roomName) { this.roomName = roomName; }
 
     public int getCapacity() { return capacity; }
+
+    /** @return label used for showtimes in this room, e.g. "R101 - IMAX Hall" */
+    public String getLabel() { return roomId + " - " + roomName; }
     public void setCapacity(int capacity) { this.capacity = capacity; }
 
     @Override
@@ -0,0 +1,162 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-room interval index used to keep registered showtimes from overlapping.
+ * <p>
+ * A showing occupies its room from its start until start + movie duration + cleaning
+ * buffer. Within a room the registered intervals never overlap, so each room only needs
+ * a {@link TreeMap} keyed by start minute: a candidate conflicts exactly when its
+ * predecessor ends after it starts or it ends after its successor starts, which is
+ * two O(log n) lookups. Each room is locked independently.
+ */
+final class RoomSchedule {
+
+    /** Default cleaning/turnover time between two showings in the same room. */
+    static final int DEFAULT_CLEANING_BUFFER_MINUTES = 15;
+
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    /** Room label to that room's showings keyed by start minute. */
+    private final ConcurrentMap<String, TreeMap<Long, Showtime>> rooms = new ConcurrentHashMap<>();
+    /** Minutes added after every showing before the room can be used again. */
+    private volatile int cleaningBufferMinutes = DEFAULT_CLEANING_BUFFER_MINUTES;
+
+    int getCleaningBufferMinutes() { return cleaningBufferMinutes; }
+
+    void setCleaningBufferMinutes(int minutes) {
+        if (minutes < 0) throw new IllegalArgumentException("Cleaning buffer cannot be negative");
+        this.cleaningBufferMinutes = minutes;
+    }
+
+    /** @return start of the showing in minutes since the epoch */
+    static long startMinute(Showtime showtime) {
+        return showtime.getDate().toEpochDay() * MINUTES_PER_DAY + showtime.getLocalTime().toSecondOfDay() / 60;
+    }
+
+    /** @return minute at which the room is free again, buffer included */
+    static long endMinute(Showtime showtime, int bufferMinutes) {
+        return startMinute(showtime) + showtime.getMovie().getDurationMinutes() + bufferMinutes;
+    }
+
+    /**
+     * Finds a registered showing in the same room that overlaps the candidate.
+     * @param candidate showtime to check
+     * @return an overlapping showtime, or {@code null} if the slot is free
+     */
+    Showtime findConflict(Showtime candidate) {
+        if (candidate.getRoom() == null) return null;
+        TreeMap<Long, Showtime> timeline = rooms.get(candidate.getRoom());
+        if (timeline == null) return null;
+        synchronized (timeline) {
+            return conflictIn(timeline, candidate);
+        }
+    }
+
+    /**
+     * Books the candidate's interval in its room.
+     * @param showtime showtime to book
+     * @throws IllegalArgumentException if another showing already uses the room at that time
+     */
+    void claim(Showtime showtime) {
+        if (showtime.getRoom() == null) return;
+        TreeMap<Long, Showtime> timeline = rooms.computeIfAbsent(showtime.getRoom(), room -> new TreeMap<>());
+        synchronized (timeline) {
+            Showtime conflict = conflictIn(timeline, showtime);
+            if (conflict != null) {
+                throw new IllegalArgumentException(showtime.getRoom() + " is already booked for "
+                        + conflict.getMovie().getTitle() + " on " + conflict.getDate() + " at " + conflict.getTime() + ".");
+            }
+            timeline.put(startMinute(showtime), showtime);
+        }
+    }
+
+    /**
+     * Frees the candidate's interval in its room.
+     * @param showtime previously claimed showtime
+     */
+    void release(Showtime showtime) {
+        if (showtime.getRoom() == null) return;
+        TreeMap<Long, Showtime> timeline = rooms.get(showtime.getRoom());
+        if (timeline == null) return;
+        synchronized (timeline) {
+            timeline.remove(startMinute(showtime), showtime);
+        }
+    }
+
+    /**
+     * Copies the showings of one room that may overlap {@code [fromMinute, toMinute)}.
+     * @param room room label
+     * @param fromMinute window start in epoch minutes
+     * @param toMinute window end in epoch minutes
+     * @return showings ordered by start, including the one running into the window
+     */
+    List<Showtime> inWindow(String room, long fromMinute, long toMinute) {
+        TreeMap<Long, Showtime> timeline = rooms.get(room);
+        if (timeline == null) return List.of();
+        synchronized (timeline) {
+            Long first = timeline.floorKey(fromMinute);
+            NavigableMap<Long, Showtime> window = timeline.subMap(first != null ? first : fromMinute, true, toMinute, false);
+            return new ArrayList<>(window.values());
+        }
+    }
+
+    /** Removes every booking. */
+    void clear() { rooms.clear(); }
+
+    private Showtime conflictIn(TreeMap<Long, Showtime> timeline, Showtime candidate) {
+        int buffer = cleaningBufferMinutes;
+        long start = startMinute(candidate);
+        long end = endMinute(candidate, buffer);
+        Map.Entry<Long, Showtime> before = timeline.floorEntry(start);
+        if (before != null && before.getValue() != candidate
+                && (before.getKey() == start || endMinute(before.getValue(), buffer) > start)) {
+            return before.getValue();
+        }
+        Map.Entry<Long, Showtime> after = timeline.higherEntry(start);
+        if (after != null && after.getValue() != candidate && after.getKey() < end) {
+            return after.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Lists every pair of overlapping showings in one sweep per room.
+     * Showings are sorted by start; an active set ordered by end time drops finished
+     * showings, and every showing still active when a new one starts overlaps it.
+     * Runs in O(n log n + k) for n showtimes and k conflicts.
+     * @param showtimes showtimes to check, e.g. a bulk import plus the current schedule
+     * @param bufferMinutes cleaning buffer appended to every showing
+     * @return overlapping pairs, earlier showing first
+     */
+    static List<ShowtimeConflict> findConflicts(Collection<Showtime> showtimes, int bufferMinutes) {
+        Map<String, List<Showtime>> byRoom = new HashMap<>();
+        for (Showtime showtime : showtimes) {
+            if (showtime.getRoom() != null) byRoom.computeIfAbsent(showtime.getRoom(), r -> new ArrayList<>()).add(showtime);
+        }
+        List<ShowtimeConflict> conflicts = new ArrayList<>();
+        for (List<Showtime> roomShowtimes : byRoom.values()) {
+            roomShowtimes.sort(Comparator.comparingLong(RoomSchedule::startMinute));
+            PriorityQueue<Showtime> active = new PriorityQueue<>(
+                    Comparator.comparingLong((Showtime s) -> endMinute(s, bufferMinutes)));
+            for (Showtime showtime : roomShowtimes) {
+                long start = startMinute(showtime);
+                while (!active.isEmpty() && endMinute(active.peek(), bufferMinutes) <= start) active.poll();
+                for (Showtime running : active) conflicts.add(new ShowtimeConflict(running, showtime));
+                active.add(showtime);
+            }
+        }
+        return conflicts;
+    }
+}
@@ -0,0 +1,274 @@
+package model;
+
+import java.util.BitSet;
+
+/**
+ * Per-seat occupancy map for one showing, stored as a packed bitset.
+ * <p>
+ * Seats are numbered row-major ({@code index = row * seatsPerRow + seat}) and each
+ * seat occupies a single bit, so a 200-seat room fits in four {@code long} words.
+ * The layout (rows x seats per row) is derived from the room capacity; the last row
+ * may be shorter when the capacity is not a multiple of the row width.
+ * <p>
+ * Searches work on whole rows at once: a row is read as one {@code long} and runs of
+ * free seats are found with shifts and masks instead of visiting seats one by one.
+ * All public methods are synchronized on the map, so each showing has its own lock.
+ */
+public class SeatMap {
+
+    /** Widest supported row; a row must fit in one 64-bit word for the run search. */
+    public static final int MAX_SEATS_PER_ROW = 64;
+
+    /** Total number of seats. */
+    private final int capacity;
+    /** Seats in every full row. */
+    private final int seatsPerRow;
+    /** Number of rows, including a possibly partial last row. */
+    private final int rows;
+    /** Occupancy bits; a set bit means the seat is taken. */
+    private final long[] occupied;
+
+    /**
+     * Creates an empty seat map with a layout derived from the capacity.
+     * @param capacity number of seats (&gt;= 0)
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public SeatMap(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity cannot be negative");
+        this.capacity = capacity;
+        // Roughly twice as wide as deep, like a typical auditorium.
+        this.seatsPerRow = Math.max(1, Math.min(MAX_SEATS_PER_ROW, (int) Math.ceil(Math.sqrt(capacity * 2.0))));
+        this.rows = (capacity + seatsPerRow - 1) / seatsPerRow;
+        this.occupied = new long[(capacity + 63) >>> 6];
+    }
+
+    /**
+     * Creates an empty seat map for a room.
+     * @param room room whose capacity defines the layout
+     * @return new seat map
+     */
+    public static SeatMap forRoom(Room room) {
+        return new SeatMap(room.getCapacity());
+    }
+
+    /** @return total number of seats */
+    public int getCapacity() { return capacity; }
+    /** @return number of rows */
+    public int getRows() { return rows; }
+    /** @return seats in a full row */
+    public int getSeatsPerRow() { return seatsPerRow; }
+
+    /**
+     * @param row row index
+     * @return number of seats in the given row (the last row may be shorter)
+     */
+    public int getRowLength(int row) {
+        checkRow(row);
+        return Math.min(seatsPerRow, capacity - row * seatsPerRow);
+    }
+
+    /**
+     * @param row row index
+     * @param seat seat index within the row
+     * @return {@code true} if the seat is taken
+     */
+    public synchronized boolean isOccupied(int row, int seat) {
+        int index = seatIndex(row, seat);
+        return (occupied[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /** @return number of free seats in the whole map */
+    public synchronized int getFreeSeatCount() {
+        int taken = 0;
+        for (long word : occupied) taken += Long.bitCount(word);
+        return capacity - taken;
+    }
+
+    /**
+     * @param row row index
+     * @return number of free seats in that row
+     */
+    public synchronized int getFreeSeatsInRow(int row) {
+        return Long.bitCount(freeBits(row));
+    }
+
+    /** @return free seat count for every row, front to back */
+    public synchronized int[] getFreeSeatsPerRow() {
+        int[] result = new int[rows];
+        for (int row = 0; row < rows; row++) result[row] = Long.bitCount(freeBits(row));
+        return result;
+    }
+
+    /**
+     * Finds the best block of adjacent free seats without claiming it.
+     * Rows closest to the preferred viewing row (about two thirds back) win, and within
+     * a row the block closest to the centre wins.
+     * @param count number of adjacent seats wanted
+     * @return seat indexes of the block, or {@code null} if no row has such a block
+     */
+    public synchronized int[] findBestAdjacent(int count) {
+        if (count <= 0 || count > seatsPerRow) return null;
+        int preferred = (rows * 2) / 3;
+        // Visit rows in order of distance from the preferred row: p, p+1, p-1, p+2, ...
+        for (int distance = 0; distance < rows * 2; distance++) {
+            int row = (distance & 1) == 0 ? preferred - distance / 2 : preferred + (distance + 1) / 2;
+            if (row < 0 || row >= rows) continue;
+            int start = bestStartInRow(row, count);
+            if (start >= 0) {
+                int[] seats = new int[count];
+                int base = row * seatsPerRow + start;
+                for (int i = 0; i < count; i++) seats[i] = base + i;
+                return seats;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds and claims the best block of adjacent free seats in one step.
+     * @param count number of adjacent seats wanted
+     * @return claimed seat indexes, or {@code null} if no block was available
+     */
+    public synchronized int[] claimBestAdjacent(int count) {
+        int[] seats = findBestAdjacent(count);
+        if (seats != null) setBits(seats, true);
+        return seats;
+    }
+
+    /**
+     * Claims specific seats; either all of them are claimed or none.
+     * @param seats seat indexes
+     * @return {@code false} if any of the seats was already taken
+     */
+    public synchronized boolean claim(int... seats) {
+        for (int index : seats) {
+            checkIndex(index);
+            if ((occupied[index >>> 6] & (1L << index)) != 0) return false;
+        }
+        setBits(seats, true);
+        return true;
+    }
+
+    /**
+     * Marks seats as taken whether or not they already were, e.g. when replaying bookings.
+     * @param seats seat indexes
+     */
+    public synchronized void markOccupied(int... seats) {
+        for (int index : seats) checkIndex(index);
+        setBits(seats, true);
+    }
+
+    /**
+     * Checks that seats can be released: each index is valid, listed once and taken.
+     * @param seats seat indexes
+     * @throws IllegalArgumentException if an index is invalid, repeated or a free seat
+     */
+    public synchronized void requireTaken(int... seats) {
+        long[] seen = new long[occupied.length];
+        for (int index : seats) {
+            checkIndex(index);
+            long bit = 1L << index;
+            if ((seen[index >>> 6] & bit) != 0) throw new IllegalArgumentException("Seat listed twice: " + index);
+            if ((occupied[index >>> 6] & bit) == 0) throw new IllegalArgumentException("Seat is not taken: " + index);
+            seen[index >>> 6] |= bit;
+        }
+    }
+
+    /**
+     * Frees previously claimed seats.
+     * @param seats seat indexes
+     */
+    public synchronized void release(int... seats) {
+        for (int index : seats) checkIndex(index);
+        setBits(seats, false);
+    }
+
+    /**
+     * Copies the occupancy for rendering. Bit {@code row * getSeatsPerRow() + seat}
+     * is set when that seat is taken.
+     * @return independent copy of the occupancy bits
+     */
+    public synchronized BitSet snapshot() {
+        return BitSet.valueOf(occupied);
+    }
+
+    /** @return raw copy of the occupancy words, used for persistence */
+    public synchronized long[] toWords() {
+        return occupied.clone();
+    }
+
+    /**
+     * Replaces the occupancy with previously saved words.
+     * @param words words produced by {@link #toWords()} for a map of the same capacity
+     * @throws IllegalArgumentException if the word count does not match
+     */
+    public synchronized void loadWords(long[] words) {
+        if (words.length != occupied.length) throw new IllegalArgumentException("Seat map size mismatch");
+        System.arraycopy(words, 0, occupied, 0, words.length);
+    }
+
+    /**
+     * Picks the start of the most central run of {@code count} free seats in a row.
+     * @return start seat within the row, or -1 if the row has no such run
+     */
+    private int bestStartInRow(int row, int count) {
+        long free = freeBits(row);
+        if (Long.bitCount(free) < count) return -1;
+        // Bit j of runs stays set while seats j .. j+len-1 are all free; doubling the
+        // length each step needs only log2(count) shift-and-mask operations.
+        long runs = free;
+        int length = 1;
+        while (length < count && runs != 0) {
+            int shift = Math.min(length, count - length);
+            runs &= runs >>> shift;
+            length += shift;
+        }
+        if (runs == 0) return -1;
+        int rowLength = getRowLength(row);
+        int best = -1;
+        int bestOffset = Integer.MAX_VALUE;
+        while (runs != 0) {
+            int start = Long.numberOfTrailingZeros(runs);
+            // Twice the distance between block centre and row centre, to stay in integers.
+            int offset = Math.abs(2 * start + count - rowLength);
+            if (offset < bestOffset) {
+                bestOffset = offset;
+                best = start;
+            }
+            runs &= runs - 1;
+        }
+        return best;
+    }
+
+    /** Reads a row's free seats as the low bits of one word. */
+    private long freeBits(int row) {
+        int length = getRowLength(row);
+        int start = row * seatsPerRow;
+        int word = start >>> 6;
+        int offset = start & 63;
+        long bits = occupied[word] >>> offset;
+        if (offset + length > 64) bits |= occupied[word + 1] << (64 - offset);
+        long mask = length == 64 ? -1L : (1L << length) - 1;
+        return ~bits & mask;
+    }
+
+    private void setBits(int[] seats, boolean taken) {
+        for (int index : seats) {
+            if (taken) occupied[index >>> 6] |= 1L << index;
+            else occupied[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    private int seatIndex(int row, int seat) {
+        if (seat < 0 || seat >= getRowLength(row)) throw new IllegalArgumentException("Invalid seat: " + seat);
+        return row * seatsPerRow + seat;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rows) throw new IllegalArgumentException("Invalid row: " + row);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= capacity) throw new IllegalArgumentException("Invalid seat index: " + index);
+    }
+}
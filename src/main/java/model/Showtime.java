@@ -1,11 +1,19 @@
 package model;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -14,8 +22,17 @@ import java.util.List;
  */
 public class Showtime implements Comparable<Showtime> {
 
-    private static final List<Showtime> ALL_SHOWTIMES = new ArrayList<>();
+    /** Chronological index of every registered showtime. */
+    private static final ShowtimeIndex ALL_SHOWTIMES = new ShowtimeIndex();
+    /** Source of unique showtime ids. */
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+    /** Parser for 12h input such as "5:00 PM"; AM/PM markers are English regardless of the default locale. */
+    private static final DateTimeFormatter TWELVE_HOUR = DateTimeFormatter.ofPattern("h:mm a", Locale.US);
+    /** Display date formatters, built once per locale. */
+    private static final ConcurrentMap<Locale, DateTimeFormatter> DATE_FORMATS = new ConcurrentHashMap<>();
 
+    /** Unique id; also orders showtimes that start at the same minute. Kept across restarts by {@link #restore}. */
+    private final long id;
     /** Movie being shown. */
     private Movie movie;
     /** Calendar date of the showing. */
@@ -26,10 +43,21 @@ public class Showtime implements Comparable<Showtime> {
     private LocalTime localTime; // parsed
     /** Room / auditorium identifier. */
     private String room;
-    /** Remaining seats available for reservation. */
-    private int availableSeats;
+    /**
+     * Seat state packed as {@code version << 32 | available}: the remaining seats and a version
+     * incremented by every reservation or release. Updated with compare-and-set only; the
+     * version lets a replayed change be applied exactly once.
+     */
+    private final AtomicLong seatState = new AtomicLong();
+    /**
+     * Whether the showtime is in the schedule; seat changes are reported only then. Claimed with
+     * compare-and-set, so only one of several concurrent registrations reports the showtime.
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
     /** Total seating capacity of the room. */
     private int totalCapacity;
+    /** Per-seat occupancy, created on first seat-level booking. */
+    private volatile SeatMap seatMap;
 
     /**
      * Creates a showtime with a default capacity of 100 seats.
@@ -40,15 +68,20 @@ public class Showtime implements Comparable<Showtime> {
      * @throws IllegalArgumentException if movie/date null
      */
     public Showtime(Movie movie, LocalDate date, String time, String room) {
+        this(NEXT_ID.incrementAndGet(), movie, date, time, room);
+    }
+
+    private Showtime(long id, Movie movie, LocalDate date, String time, String room) {
         if (movie == null) throw new IllegalArgumentException("Movie cannot be null");
         if (date == null) throw new IllegalArgumentException("Date cannot be null");
+        this.id = id;
         this.movie = movie;
         this.date = date;
         this.time = time;
         this.localTime = parseTime(time);
         this.room = room;
         this.totalCapacity = 100;
-        this.availableSeats = totalCapacity;
+        this.seatState.set(pack(0, totalCapacity));
     }
 
     /**
@@ -62,16 +95,158 @@ public class Showtime implements Comparable<Showtime> {
     public Showtime(Movie movie, LocalDate date, String time, String room, int totalCapacity) {
         this(movie, date, time, room);
         this.totalCapacity = totalCapacity;
-        this.availableSeats = totalCapacity;
+        this.seatState.set(pack(0, totalCapacity));
+    }
+
+    /**
+     * Recreates a showtime with its original id and seat state, e.g. from a journal or snapshot.
+     * New showtimes created afterwards get higher ids. The showtime is not registered.
+     * @param id original id
+     * @param movie movie value
+     * @param date date value
+     * @param time time string
+     * @param room room label
+     * @param totalCapacity capacity
+     * @param seatVersion seat version, see {@link #getSeatVersion()}
+     * @param availableSeats seats still available
+     * @return the restored showtime
+     */
+    public static Showtime restore(long id, Movie movie, LocalDate date, String time, String room,
+                                   int totalCapacity, int seatVersion, int availableSeats) {
+        NEXT_ID.accumulateAndGet(id, Math::max);
+        Showtime showtime = new Showtime(id, movie, date, time, room);
+        showtime.totalCapacity = totalCapacity;
+        showtime.seatState.set(pack(seatVersion, availableSeats));
+        return showtime;
+    }
+
+    /**
+     * Returns all registered showtimes in chronological order.
+     * This is a live, read-only view that stays safe to iterate while showtimes are added.
+     * @return chronological view of all registered Showtime objects.
+     */
+    public static Collection<Showtime> getAllShowtimes() {
+        return ALL_SHOWTIMES.all();
+    }
+
+    /**
+     * Adds a showtime to the global schedule so it appears in all queries.
+     * @param showtime showtime to register
+     * @return {@code false} if it was already registered
+     * @throws IllegalArgumentException if showtime is null or its room is already in use at that time
+     */
+    public static boolean register(Showtime showtime) {
+        if (showtime == null) throw new IllegalArgumentException("Showtime cannot be null");
+        if (!showtime.scheduled.compareAndSet(false, true)) return false;
+        // Reported before it becomes visible, so listeners see it before any of its seat changes.
+        ModelEvents.beginPendingChange();
+        try {
+            ModelEvents.showtimeScheduled(showtime);
+            boolean added;
+            try {
+                added = ALL_SHOWTIMES.add(showtime);
+            } catch (IllegalArgumentException e) {
+                showtime.scheduled.set(false);
+                ModelEvents.showtimeRemoved(showtime);
+                throw e;
+            }
+            if (!added) {
+                showtime.scheduled.set(false);
+                ModelEvents.showtimeRemoved(showtime);
+            }
+            return added;
+        } finally {
+            ModelEvents.endPendingChange();
+        }
+    }
+
+    /**
+     * Removes a showtime from the global schedule.
+     * @param showtime showtime to remove
+     * @return {@code true} if it was registered
+     */
+    public static boolean unregister(Showtime showtime) {
+        if (showtime == null || !ALL_SHOWTIMES.remove(showtime)) return false;
+        showtime.scheduled.set(false);
+        ModelEvents.showtimeRemoved(showtime);
+        return true;
+    }
+
+    /**
+     * Looks up a registered showtime by id.
+     * @param id showtime id
+     * @return the showtime, or {@code null} if none with this id is registered
+     */
+    public static Showtime findById(long id) {
+        return ALL_SHOWTIMES.byId(id);
+    }
+
+    /**
+     * @param from inclusive start
+     * @param to exclusive end
+     * @return registered showtimes starting in {@code [from, to)}, in chronological order
+     */
+    public static List<Showtime> getShowtimesBetween(LocalDateTime from, LocalDateTime to) {
+        return ALL_SHOWTIMES.between(from, to);
+    }
+
+    /**
+     * @param moment reference point, typically {@code LocalDateTime.now()}
+     * @return the next registered showtime starting after {@code moment}, or {@code null}
+     */
+    public static Showtime getNextShowtimeAfter(LocalDateTime moment) {
+        return ALL_SHOWTIMES.nextAfter(moment);
+    }
+
+    /**
+     * @param day calendar day
+     * @return registered showtimes on that day, in chronological order
+     */
+    public static List<Showtime> getShowtimesOn(LocalDate day) {
+        return ALL_SHOWTIMES.on(day);
+    }
+
+    /**
+     * Finds a registered showing that would overlap the candidate in the same room,
+     * taking the movie duration and the cleaning buffer into account.
+     * @param candidate showtime to check (registered or not)
+     * @return the conflicting showtime, or {@code null} if the room is free
+     */
+    public static Showtime findConflict(Showtime candidate) {
+        return ALL_SHOWTIMES.rooms().findConflict(candidate);
     }
 
     /**
-     * Returns the global static list of all created showtimes.
-     * This is used by controllers to access showtime data.
-     * @return List of all Showtime objects.
+     * Lists every overlapping pair among the given showtimes in a single sweep per room,
+     * e.g. to validate a seasonal schedule before importing it.
+     * @param showtimes showtimes to check
+     * @return conflicting pairs (empty if the schedule is clean)
+     */
+    public static List<ShowtimeConflict> findConflicts(Collection<Showtime> showtimes) {
+        return RoomSchedule.findConflicts(showtimes, ALL_SHOWTIMES.rooms().getCleaningBufferMinutes());
+    }
+
+    /** @return the per-room interval index of registered showtimes */
+    static RoomSchedule roomSchedule() { return ALL_SHOWTIMES.rooms(); }
+
+    /** @return minutes reserved for cleaning after each showing */
+    public static int getCleaningBufferMinutes() { return ALL_SHOWTIMES.rooms().getCleaningBufferMinutes(); }
+
+    /**
+     * Sets the cleaning time enforced between showings in the same room.
+     * Applies to future registrations; existing showtimes are not re-validated.
+     * @param minutes buffer in minutes (&gt;= 0)
+     */
+    public static void setCleaningBufferMinutes(int minutes) { ALL_SHOWTIMES.rooms().setCleaningBufferMinutes(minutes); }
+
+    /**
+     * Returns the registered showtimes of one movie with a single hash lookup on its id.
+     * @param movie movie to look up
+     * @return live, read-only chronological view of the movie's showtimes
      */
-    public static List<Showtime> getAllShowtimes() {
-        return ALL_SHOWTIMES;
+    public static Collection<Showtime> getShowtimesForMovie(Media movie) {
+        if (movie == null) throw new IllegalArgumentException("Movie cannot be null");
+        return ALL_SHOWTIMES.forMovie(movie);
     }
 
     /**
@@ -84,29 +259,243 @@ public class Showtime implements Comparable<Showtime> {
         if (timeStr == null || timeStr.isEmpty()) return LocalTime.of(12, 0);
         try {
             if (timeStr.contains("AM") || timeStr.contains("PM")) {
-                DateTimeFormatter f = DateTimeFormatter.ofPattern("h:mm a");
-                return LocalTime.parse(timeStr.toUpperCase().replace("A.M", "AM").replace("P.M", "PM"), f);
+                return LocalTime.parse(timeStr.toUpperCase().replace("A.M", "AM").replace("P.M", "PM"), TWELVE_HOUR);
             }
             return LocalTime.parse(timeStr);
         } catch (DateTimeParseException e) { return LocalTime.of(12, 0); }
     }
 
+    /** @return unique showtime id */
+    public long getId() { return id; }
+    /** @return parsed start time */
+    public LocalTime getLocalTime() { return localTime; }
     /** @return movie */
     public Movie getMovie() { return movie; }
     /** Sets movie (non-null). */
-    public void setMovie(Movie movie) { if (movie == null) throw new IllegalArgumentException("Movie cannot be null"); this.movie = movie; }
+    public void setMovie(Movie movie) { if (movie == null) throw new IllegalArgumentException("Movie cannot be null"); Movie old = this.movie; reschedule(() -> this.movie = movie, () -> this.movie = old); }
     /** @return date */
     public LocalDate getDate() { return date; }
     /** Sets date (non-null). */
-    public void setDate(LocalDate date) { if (date == null) throw new IllegalArgumentException("Date cannot be null"); this.date = date; }
+    public void setDate(LocalDate date) { if (date == null) throw new IllegalArgumentException("Date cannot be null"); LocalDate old = this.date; reschedule(() -> this.date = date, () -> this.date = old); }
     /** @return original time string */
     public String getTime() { return time; }
     /** Updates time string and reparses {@link #localTime}. */
-    public void setTime(String time) { this.time = time; this.localTime = parseTime(time); }
+    public void setTime(String time) {
+        LocalTime parsed = parseTime(time);
+        String oldTime = this.time;
+        LocalTime oldLocalTime = this.localTime;
+        reschedule(() -> { this.time = time; this.localTime = parsed; }, () -> { this.time = oldTime; this.localTime = oldLocalTime; });
+    }
     /** @return room label */
     public String getRoom() { return room; }
     /** Sets room label. */
-    public void setRoom(String room) { this.room = room; }
+    public void setRoom(String room) { String old = this.room; reschedule(() -> this.room = room, () -> this.room = old); }
+
+    /**
+     * Applies a change to an indexed field, moving the showtime within the index if registered.
+     * If the new slot conflicts with another showing, the change is undone and the conflict rethrown.
+     * @param change mutation of movie, date, time and/or room
+     * @param undo restores the previous values
+     */
+    private void reschedule(Runnable change, Runnable undo) {
+        boolean registered = ALL_SHOWTIMES.remove(this);
+        change.run();
+        if (!registered) return;
+        try {
+            ALL_SHOWTIMES.add(this);
+        } catch (IllegalArgumentException e) {
+            undo.run();
+            ALL_SHOWTIMES.add(this);
+            throw e;
+        }
+        ModelEvents.showtimeUpdated(this);
+    }
+
+    /** @return whether the showtime is currently registered in the schedule */
+    public boolean isScheduled() { return scheduled.get(); }
+    /** @return seats still available for reservation */
+    public int getAvailableSeats() { return available(seatState.get()); }
+    /** @return total seating capacity */
+    public int getTotalCapacity() { return totalCapacity; }
+    /** @return number of seats already reserved */
+    public int getReservedSeats() { return totalCapacity - getAvailableSeats(); }
+    /** @return number of seat changes so far; increases with every reservation and release */
+    public int getSeatVersion() { return version(seatState.get()); }
+
+    private static long pack(int version, int available) { return (long) version << 32 | (available & 0xFFFFFFFFL); }
+    private static int version(long state) { return (int) (state >>> 32); }
+    private static int available(long state) { return (int) state; }
+
+    /**
+     * Reserves seats without locking: the counter is decremented with a compare-and-set
+     * loop, so concurrent buyers can never take the count below zero.
+     * @param seats number of seats to reserve (&gt; 0)
+     * @return {@code true} if all seats were reserved, {@code false} if not enough remain
+     * @throws IllegalArgumentException if seats is not positive
+     */
+    public boolean reserve(int seats) {
+        long state = reserveCount(seats);
+        if (state < 0) return false;
+        if (scheduled.get()) ModelEvents.seatsChanged(this, seats, null, version(state), available(state));
+        return true;
+    }
+
+    /**
+     * Returns previously reserved seats to the pool.
+     * @param seats number of seats to release (&gt; 0)
+     * @throws IllegalArgumentException if seats is not positive or more than currently reserved
+     */
+    public void release(int seats) {
+        long state = releaseCount(seats);
+        if (scheduled.get()) ModelEvents.seatsChanged(this, -seats, null, version(state), available(state));
+    }
+
+    /** @return the new seat state, or -1 if not enough seats remain */
+    private long reserveCount(int seats) {
+        if (seats <= 0) throw new IllegalArgumentException("Seat count must be positive");
+        while (true) {
+            long current = seatState.get();
+            if (available(current) < seats) return -1;
+            long next = pack(version(current) + 1, available(current) - seats);
+            if (seatState.compareAndSet(current, next)) return next;
+        }
+    }
+
+    /** @return the new seat state */
+    private long releaseCount(int seats) {
+        if (seats <= 0) throw new IllegalArgumentException("Seat count must be positive");
+        while (true) {
+            long current = seatState.get();
+            if (available(current) + seats > totalCapacity) throw new IllegalArgumentException("Cannot release more seats than reserved");
+            long next = pack(version(current) + 1, available(current) + seats);
+            if (seatState.compareAndSet(current, next)) return next;
+        }
+    }
+
+    /**
+     * Applies a recorded seat change. Used when replaying a journal, so applying the same
+     * change twice has no effect: a change at or below the current version is already
+     * reflected (by an earlier record or by the snapshot) and is ignored, seats included.
+     * Seat changes are versioned in the order they touched the seat map, so a showtime's
+     * records must be applied in version order.
+     * @param version seat version after the recorded change
+     * @param available seats available after the change
+     * @param seatIndexes seats claimed ({@code delta > 0}) or freed, or {@code null}
+     * @param delta sign tells whether seats were reserved or released
+     * @return {@code true} if the change was newer and has been applied
+     */
+    public boolean applySeatChange(int version, int available, int[] seatIndexes, int delta) {
+        if (seatIndexes == null || seatIndexes.length == 0) return advanceSeatState(version, available);
+        SeatMap map = getSeatMap();
+        synchronized (map) {
+            if (!advanceSeatState(version, available)) return false;
+            if (delta > 0) map.markOccupied(seatIndexes);
+            else map.release(seatIndexes);
+            return true;
+        }
+    }
+
+    /** Moves the seat state forward to a newer version; {@code false} if it is already there. */
+    private boolean advanceSeatState(int version, int available) {
+        while (true) {
+            long current = seatState.get();
+            if (version(current) >= version) return false;
+            if (seatState.compareAndSet(current, pack(version, available))) return true;
+        }
+    }
+
+    /**
+     * Reserves seats across several showtimes as a group: either every request succeeds
+     * or none does. Seats already taken for earlier entries are released again on failure.
+     * @param requests showtime to number of seats
+     * @return {@code true} if every reservation succeeded
+     * @throws IllegalArgumentException if any seat count is not positive
+     */
+    public static boolean tryReserveAll(Map<Showtime, Integer> requests) {
+        for (Integer seats : requests.values()) {
+            if (seats == null || seats <= 0) throw new IllegalArgumentException("Seat count must be positive");
+        }
+        List<Map.Entry<Showtime, Integer>> reserved = new ArrayList<>(requests.size());
+        for (Map.Entry<Showtime, Integer> request : requests.entrySet()) {
+            if (!request.getKey().reserve(request.getValue())) {
+                for (Map.Entry<Showtime, Integer> done : reserved) done.getKey().release(done.getValue());
+                return false;
+            }
+            reserved.add(request);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the seat map for this showing, creating an empty one sized to the capacity on first use.
+     * @return seat map
+     */
+    public SeatMap getSeatMap() {
+        SeatMap map = seatMap;
+        if (map == null) {
+            synchronized (this) {
+                map = seatMap;
+                if (map == null) seatMap = map = new SeatMap(totalCapacity);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * @return copy of the seat map words (see {@link SeatMap#toWords()}), or {@code null} if no
+     *         seat of this showing was ever booked individually
+     */
+    public long[] getSeatWords() {
+        SeatMap map = seatMap;
+        return map == null ? null : map.toWords();
+    }
+
+    /**
+     * Reserves the best block of adjacent seats. A sold-out showing is rejected without
+     * touching the seat map; otherwise the block is claimed and the counter decremented
+     * under the map's lock, like {@link #releaseSeats}, so seat versions follow the order in
+     * which the seat map changed and a journal replay in version order rebuilds the same map.
+     * @param seats number of adjacent seats
+     * @return claimed seat indexes, or {@code null} if no suitable block is free
+     */
+    public int[] reserveBestAvailable(int seats) {
+        if (seats <= 0) throw new IllegalArgumentException("Seat count must be positive");
+        if (getAvailableSeats() < seats) return null;
+        SeatMap map = getSeatMap();
+        int[] claimed;
+        long state;
+        synchronized (map) {
+            claimed = map.claimBestAdjacent(seats);
+            if (claimed == null) return null;
+            state = reserveCount(seats);
+            if (state < 0) {
+                // Count-only reservations took the last seats meanwhile.
+                map.release(claimed);
+                return null;
+            }
+        }
+        if (scheduled.get()) ModelEvents.seatsChanged(this, seats, claimed, version(state), available(state));
+        return claimed;
+    }
+
+    /**
+     * Releases specific seats previously returned by {@link #reserveBestAvailable(int)}.
+     * Either all of them are released or, if any is invalid, listed twice or not taken, none.
+     * @param seats seat indexes
+     * @throws IllegalArgumentException if a seat cannot be released
+     */
+    public void releaseSeats(int... seats) {
+        if (seats.length == 0) return;
+        SeatMap map = getSeatMap();
+        long state;
+        // Under the map's lock, so a concurrent release of the same seat sees it free and fails.
+        synchronized (map) {
+            map.requireTaken(seats);
+            state = releaseCount(seats.length);
+            map.release(seats);
+        }
+        if (scheduled.get()) ModelEvents.seatsChanged(this, -seats.length, seats.clone(), version(state), available(state));
+    }
 
     /**
      * Compares by date then by parsed local time.
@@ -121,10 +510,20 @@ public class Showtime implements Comparable<Showtime> {
     }
 
     /** @return formatted human-readable date/time string */
-    public String getFormattedDateTime() { DateTimeFormatter df = DateTimeFormatter.ofPattern("MMM dd, yyyy"); return date.format(df) + " at " + time; }
+    public String getFormattedDateTime() { return getFormattedDateTime(Locale.getDefault()); }
+
+    /**
+     * Formats date and time for display, reusing one cached formatter per locale.
+     * @param locale locale for month names
+     * @return e.g. "Dec 01, 2025 at 19:00"
+     */
+    public String getFormattedDateTime(Locale locale) {
+        DateTimeFormatter df = DATE_FORMATS.computeIfAbsent(locale, l -> DateTimeFormatter.ofPattern("MMM dd, yyyy", l));
+        return date.format(df) + " at " + time;
+    }
 
     /** @return debug-friendly representation */
-    @Override public String toString() { return "Showtime{" + movie.getTitle() + ", " + date + ", " + time + ", room=" + room + ", available=" + availableSeats + "/" + totalCapacity + '}'; }
+    @Override public String toString() { return "Showtime{" + movie.getTitle() + ", " + date + ", " + time + ", room=" + room + ", available=" + getAvailableSeats() + "/" + totalCapacity + '}'; }
 
     /** Equality based on movie, date, time, and room. */
     @Override public boolean equals(Object obj) { if (this == obj) return true; if (obj == null || getClass() != obj.getClass()) return false; Showtime s = (Showtime) obj; return movie.equals(s.movie) && date.equals(s.date) && time.equals(s.time) && room.equals(s.room); }
@@ -0,0 +1,260 @@
+package model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Compact, off-heap store for large showtime histories (many sites, many years).
+ * <p>
+ * Each row takes 20 bytes in direct {@link ByteBuffer} chunks instead of a
+ * {@link Showtime} object graph (object header, movie reference, {@code LocalDate},
+ * time string, {@code LocalTime}, room string, counters):
+ * <pre>
+ *  offset  0  int    epoch day
+ *  offset  4  short  minute of day
+ *  offset  6  short  room index   (into the room dictionary)
+ *  offset  8  int    movie index  (into the movie dictionary)
+ *  offset 12  int    total capacity
+ *  offset 16  int    available seats
+ * </pre>
+ * Rooms and movies are stored once in dictionaries. Rows are read through a reusable
+ * {@link Cursor} flyweight, so scans allocate nothing per row, and available seats can
+ * be updated in place with compare-and-set.
+ * <p>
+ * The live schedule keeps using {@link Showtime} objects; this store is meant for
+ * archived and analytical data. Appends are serialized, reads are lock-free.
+ * The original time text is not kept: materialized showtimes use {@code HH:mm}.
+ */
+public class ShowtimeColumnStore {
+
+    /** Bytes per row. */
+    public static final int ROW_BYTES = 20;
+    private static final int DAY = 0;
+    private static final int MINUTE = 4;
+    private static final int ROOM = 6;
+    private static final int MOVIE = 8;
+    private static final int CAPACITY = 12;
+    private static final int AVAILABLE = 16;
+
+    /** Rows per chunk (1.25 MB per chunk). */
+    private static final int CHUNK_ROWS = 1 << 16;
+    private static final int CHUNK_SHIFT = 16;
+
+    /** Int view allowing atomic updates of the available-seat column. */
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    /** Row storage; replaced (never mutated in place) when a chunk is added. */
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    /** Number of published rows; rows below this index are fully written. */
+    private volatile int size;
+
+    /** Room dictionary; replaced on growth so readers need no lock. */
+    private volatile String[] rooms = new String[0];
+    private final Map<String, Integer> roomIndex = new HashMap<>();
+    /** Movie dictionary; replaced on growth so readers need no lock. */
+    private volatile Movie[] movies = new Movie[0];
+    private final Map<String, Integer> movieIndex = new HashMap<>();
+    /** Days before this one were copied by {@link #archiveBefore(LocalDate)}; {@code null} before the first call. */
+    private LocalDate archivedUntil;
+
+    /**
+     * Appends one showtime.
+     * @param showtime showtime to copy into the store
+     * @return row index of the new row
+     */
+    public synchronized int append(Showtime showtime) {
+        int row = size;
+        int chunk = row >>> CHUNK_SHIFT;
+        if (chunk == chunks.length) {
+            ByteBuffer[] grown = Arrays.copyOf(chunks, chunk + 1);
+            grown[chunk] = ByteBuffer.allocateDirect(CHUNK_ROWS * ROW_BYTES).order(ByteOrder.nativeOrder());
+            chunks = grown;
+        }
+        ByteBuffer buffer = chunks[chunk];
+        int base = offset(row);
+        buffer.putInt(base + DAY, (int) showtime.getDate().toEpochDay());
+        buffer.putShort(base + MINUTE, (short) (showtime.getLocalTime().toSecondOfDay() / 60));
+        buffer.putShort(base + ROOM, (short) roomIndexOf(showtime.getRoom()));
+        buffer.putInt(base + MOVIE, movieIndexOf(showtime.getMovie()));
+        buffer.putInt(base + CAPACITY, showtime.getTotalCapacity());
+        buffer.putInt(base + AVAILABLE, showtime.getAvailableSeats());
+        size = row + 1;
+        return row;
+    }
+
+    /**
+     * Appends many showtimes, e.g. a closed season moved out of the live schedule.
+     * @param showtimes showtimes to copy
+     */
+    public synchronized void appendAll(Collection<Showtime> showtimes) {
+        for (Showtime showtime : showtimes) append(showtime);
+    }
+
+    /**
+     * Copies registered showtimes dated before {@code day} from the live schedule. Days copied
+     * by an earlier call are skipped, so calling this daily archives each showtime once.
+     * The live schedule is left unchanged; unregister the showtimes once the archive is kept
+     * elsewhere, since this store lives only in memory.
+     * @param day first day not to archive
+     * @return number of showtimes copied
+     */
+    public synchronized int archiveBefore(LocalDate day) {
+        if (day == null) throw new IllegalArgumentException("Day cannot be null");
+        int copied = 0;
+        for (Showtime showtime : Showtime.getAllShowtimes()) {
+            LocalDate date = showtime.getDate();
+            // The schedule is chronological, so nothing later is due yet.
+            if (!date.isBefore(day)) break;
+            if (archivedUntil != null && date.isBefore(archivedUntil)) continue;
+            append(showtime);
+            copied++;
+        }
+        if (archivedUntil == null || day.isAfter(archivedUntil)) archivedUntil = day;
+        return copied;
+    }
+
+    /** @return number of rows */
+    public int size() { return size; }
+
+    /** @return bytes reserved off-heap for row data */
+    public long getOffHeapBytes() { return (long) chunks.length * CHUNK_ROWS * ROW_BYTES; }
+
+    /** @return a new cursor positioned before the first row */
+    public Cursor cursor() { return new Cursor(); }
+
+    /**
+     * Visits every row with one reused cursor.
+     * @param action called once per row; must not keep the cursor
+     */
+    public void forEach(Consumer<Cursor> action) {
+        Cursor cursor = new Cursor();
+        int rows = size;
+        for (int row = 0; row < rows; row++) action.accept(cursor.moveTo(row));
+    }
+
+    /**
+     * Sums sold seats per movie with a single sequential scan over the movie, capacity
+     * and available columns.
+     * @return movie to seats sold, in dictionary order
+     */
+    public Map<Movie, Long> getSoldSeatsByMovie() {
+        // Size first: append publishes the chunk and dictionary entries before the size,
+        // so every row below it has its chunk and movie in the arrays read afterwards.
+        int rows = size;
+        ByteBuffer[] data = chunks;
+        Movie[] dictionary = movies;
+        long[] sold = new long[dictionary.length];
+        for (int row = 0; row < rows; row++) {
+            ByteBuffer buffer = data[row >>> CHUNK_SHIFT];
+            int base = offset(row);
+            sold[buffer.getInt(base + MOVIE)] += buffer.getInt(base + CAPACITY) - (int) INT.getVolatile(buffer, base + AVAILABLE);
+        }
+        Map<Movie, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < dictionary.length; i++) result.put(dictionary[i], sold[i]);
+        return result;
+    }
+
+    /**
+     * Creates a regular (unregistered) {@link Showtime} from a row.
+     * @param row row index
+     * @return new showtime with the row's values
+     */
+    public Showtime toShowtime(int row) {
+        return cursor().moveTo(row).toShowtime();
+    }
+
+    private synchronized int roomIndexOf(String room) {
+        String key = room == null ? "" : room;
+        Integer index = roomIndex.get(key);
+        if (index != null) return index;
+        if (rooms.length > Short.MAX_VALUE) throw new IllegalStateException("Too many rooms");
+        String[] grown = Arrays.copyOf(rooms, rooms.length + 1);
+        grown[rooms.length] = key;
+        rooms = grown;
+        roomIndex.put(key, grown.length - 1);
+        return grown.length - 1;
+    }
+
+    private synchronized int movieIndexOf(Movie movie) {
+        Integer index = movieIndex.get(movie.getId());
+        if (index != null) return index;
+        Movie[] grown = Arrays.copyOf(movies, movies.length + 1);
+        grown[movies.length] = movie;
+        movies = grown;
+        movieIndex.put(movie.getId(), grown.length - 1);
+        return grown.length - 1;
+    }
+
+    private static int offset(int row) { return (row & (CHUNK_ROWS - 1)) * ROW_BYTES; }
+
+    /**
+     * Flyweight view of one row. Call {@link #moveTo(int)} to point it at another row;
+     * getters read straight from the off-heap columns.
+     */
+    public final class Cursor {
+        private ByteBuffer buffer;
+        private int base;
+        private int row = -1;
+
+        private Cursor() { }
+
+        /**
+         * @param row row index
+         * @return this cursor
+         * @throws IndexOutOfBoundsException if the row does not exist
+         */
+        public Cursor moveTo(int row) {
+            if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row);
+            this.buffer = chunks[row >>> CHUNK_SHIFT];
+            this.base = offset(row);
+            this.row = row;
+            return this;
+        }
+
+        public int getRow() { return row; }
+        public long getEpochDay() { return buffer.getInt(base + DAY); }
+        public LocalDate getDate() { return LocalDate.ofEpochDay(buffer.getInt(base + DAY)); }
+        public int getMinuteOfDay() { return buffer.getShort(base + MINUTE); }
+        public LocalTime getLocalTime() { return LocalTime.ofSecondOfDay(getMinuteOfDay() * 60L); }
+        public int getRoomIndex() { return buffer.getShort(base + ROOM); }
+        public String getRoom() { return rooms[getRoomIndex()]; }
+        public int getMovieIndex() { return buffer.getInt(base + MOVIE); }
+        public Movie getMovie() { return movies[getMovieIndex()]; }
+        public int getTotalCapacity() { return buffer.getInt(base + CAPACITY); }
+        public int getAvailableSeats() { return (int) INT.getVolatile(buffer, base + AVAILABLE); }
+
+        /**
+         * Reserves seats in place with compare-and-set, like {@link Showtime#reserve(int)}.
+         * @param seats seats to reserve (&gt; 0)
+         * @return {@code false} if not enough seats remain
+         */
+        public boolean reserve(int seats) {
+            if (seats <= 0) throw new IllegalArgumentException("Seat count must be positive");
+            while (true) {
+                int current = getAvailableSeats();
+                if (current < seats) return false;
+                if (INT.compareAndSet(buffer, base + AVAILABLE, current, current - seats)) return true;
+            }
+        }
+
+        /** @return a new, unregistered {@link Showtime} holding this row's values */
+        public Showtime toShowtime() {
+            String room = getRoom();
+            Showtime showtime = new Showtime(getMovie(), getDate(), getLocalTime().toString(),
+                    room.isEmpty() ? null : room, getTotalCapacity());
+            int reserved = getTotalCapacity() - getAvailableSeats();
+            if (reserved > 0) showtime.reserve(reserved);
+            return showtime;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * Two showtimes that use the same room at overlapping times
+ * (cleaning buffer included).
+ *
+ * @param first the showing that starts first
+ * @param second the showing that starts while {@code first} still occupies the room
+ */
+public record ShowtimeConflict(Showtime first, Showtime second) {
+
+    @Override
+    public String toString() {
+        return second.getRoom() + ": " + first.getMovie().getTitle() + " (" + first.getDate() + " " + first.getTime()
+                + ") overlaps " + second.getMovie().getTitle() + " (" + second.getDate() + " " + second.getTime() + ")";
+    }
+}
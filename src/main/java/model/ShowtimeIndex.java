@@ -0,0 +1,162 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Chronological index of all registered {@link Showtime}s.
+ * <p>
+ * Backed by a {@link ConcurrentSkipListMap} ordered by date, then start time, then a
+ * per-showtime id that breaks ties between showings starting at the same minute.
+ * Range queries cost O(log n + k) and readers never block writers; iteration is
+ * weakly consistent, so the UI can read while new showtimes are being registered.
+ * <p>
+ * A secondary index keyed by {@link Media#getId()} keeps each movie's showtimes in
+ * the same chronological order, so a movie's schedule is found with one hash lookup.
+ * A {@link RoomSchedule} rejects showtimes that would overlap another showing in the same room.
+ */
+final class ShowtimeIndex {
+
+    /**
+     * Sort key of a showtime. Must be recomputed (remove, then re-add) whenever the
+     * date or time of a registered showtime changes.
+     */
+    record Key(LocalDate date, LocalTime time, long id) implements Comparable<Key> {
+        @Override public int compareTo(Key other) {
+            int c = date.compareTo(other.date);
+            if (c != 0) return c;
+            c = time.compareTo(other.time);
+            return c != 0 ? c : Long.compare(id, other.id);
+        }
+    }
+
+    /** All registered showtimes in chronological order. */
+    private final ConcurrentSkipListMap<Key, Showtime> chronological = new ConcurrentSkipListMap<>();
+    /** Read-only live view handed out to callers. */
+    private final Collection<Showtime> view = Collections.unmodifiableCollection(chronological.values());
+    /** Secondary index: movie id to that movie's showtimes, chronological. */
+    private final ConcurrentMap<String, MovieShowtimes> byMovie = new ConcurrentHashMap<>();
+
+    /** Showtimes by id, e.g. for applying journaled seat changes. */
+    private final ConcurrentMap<Long, Showtime> byId = new ConcurrentHashMap<>();
+
+    /** Per-room interval index guarding against double-booked rooms. */
+    private final RoomSchedule rooms = new RoomSchedule();
+
+    /** One movie's showtimes together with the read-only view handed out for them. */
+    private static final class MovieShowtimes {
+        final ConcurrentSkipListMap<Key, Showtime> entries = new ConcurrentSkipListMap<>();
+        final Collection<Showtime> view = Collections.unmodifiableCollection(entries.values());
+    }
+
+    static Key keyOf(Showtime showtime) {
+        return new Key(showtime.getDate(), showtime.getLocalTime(), showtime.getId());
+    }
+
+    /**
+     * Adds a showtime to the index.
+     * @param showtime showtime to add
+     * @return {@code false} if it was already registered
+     * @throws IllegalArgumentException if its room is already booked at that time
+     */
+    boolean add(Showtime showtime) {
+        Key key = keyOf(showtime);
+        if (chronological.containsKey(key)) return false;
+        rooms.claim(showtime);
+        if (chronological.putIfAbsent(key, showtime) != null) return false;
+        byId.put(showtime.getId(), showtime);
+        byMovie.computeIfAbsent(showtime.getMovie().getId(), id -> new MovieShowtimes()).entries.put(key, showtime);
+        return true;
+    }
+
+    /**
+     * Removes a showtime from the index.
+     * @param showtime showtime to remove
+     * @return {@code true} if it was registered
+     */
+    boolean remove(Showtime showtime) {
+        Key key = keyOf(showtime);
+        if (!chronological.remove(key, showtime)) return false;
+        rooms.release(showtime);
+        byId.remove(showtime.getId(), showtime);
+        MovieShowtimes forMovie = byMovie.get(showtime.getMovie().getId());
+        if (forMovie != null) forMovie.entries.remove(key, showtime);
+        return true;
+    }
+
+    /**
+     * @param id showtime id
+     * @return the registered showtime with this id, or {@code null}
+     */
+    Showtime byId(long id) { return byId.get(id); }
+
+    /** @return live, read-only chronological view of all showtimes */
+    Collection<Showtime> all() { return view; }
+
+    /** @return the per-room interval index */
+    RoomSchedule rooms() { return rooms; }
+
+    /** @return number of registered showtimes */
+    int size() { return chronological.size(); }
+
+    /**
+     * @param from inclusive lower bound
+     * @param to exclusive upper bound
+     * @return showtimes starting in {@code [from, to)}, in chronological order
+     */
+    List<Showtime> between(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) return List.of();
+        Key low = new Key(from.toLocalDate(), from.toLocalTime(), Long.MIN_VALUE);
+        Key high = new Key(to.toLocalDate(), to.toLocalTime(), Long.MIN_VALUE);
+        return copy(chronological.subMap(low, true, high, false));
+    }
+
+    /**
+     * @param moment reference point
+     * @return the first showtime starting strictly after {@code moment}, or {@code null}
+     */
+    Showtime nextAfter(LocalDateTime moment) {
+        Map.Entry<Key, Showtime> next = chronological.higherEntry(
+                new Key(moment.toLocalDate(), moment.toLocalTime(), Long.MAX_VALUE));
+        return next == null ? null : next.getValue();
+    }
+
+    /**
+     * @param day calendar day
+     * @return all showtimes on that day, in chronological order
+     */
+    List<Showtime> on(LocalDate day) {
+        return between(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * @param movie movie to look up
+     * @return live, read-only chronological view of the movie's showtimes (empty if none)
+     */
+    Collection<Showtime> forMovie(Media movie) {
+        MovieShowtimes forMovie = byMovie.get(movie.getId());
+        return forMovie == null ? List.of() : forMovie.view;
+    }
+
+    /** Removes every showtime from the index. */
+    void clear() {
+        chronological.clear();
+        byId.clear();
+        byMovie.clear();
+        rooms.clear();
+    }
+
+    private static List<Showtime> copy(ConcurrentNavigableMap<Key, Showtime> range) {
+        return new ArrayList<>(range.values());
+    }
+}
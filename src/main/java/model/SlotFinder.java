@@ -0,0 +1,95 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Suggests start times at which a movie fits into the existing schedule.
+ * <p>
+ * Candidate starts are generated every {@code stepMinutes} between the opening time and
+ * the last allowed start. For each room only the showings around that day are read from
+ * the per-room interval index, and candidates are checked against them with a single
+ * forward pass, so a query costs O(rooms * (log n + slots per day)).
+ */
+public class SlotFinder {
+
+    /** Earliest start time of a showing. */
+    private final LocalTime opening;
+    /** Latest start time of a showing; late shows may run past midnight. */
+    private final LocalTime lastStart;
+    /** Spacing between suggested start times, in minutes. */
+    private final int stepMinutes;
+
+    /** Creates a finder for 10:00 to 23:30 in 15-minute steps. */
+    public SlotFinder() {
+        this(LocalTime.of(10, 0), LocalTime.of(23, 30), 15);
+    }
+
+    /**
+     * @param opening earliest start time
+     * @param lastStart latest start time (not before opening)
+     * @param stepMinutes spacing between suggestions (&gt; 0)
+     * @throws IllegalArgumentException on an invalid range or step
+     */
+    public SlotFinder(LocalTime opening, LocalTime lastStart, int stepMinutes) {
+        if (opening == null || lastStart == null || lastStart.isBefore(opening))
+            throw new IllegalArgumentException("Invalid opening hours");
+        if (stepMinutes <= 0) throw new IllegalArgumentException("Step must be positive");
+        this.opening = opening;
+        this.lastStart = lastStart;
+        this.stepMinutes = stepMinutes;
+    }
+
+    /**
+     * Lists, per room, every start time on the given day at which the movie can be shown
+     * without overlapping a registered showing (cleaning buffer included).
+     * @param movie movie to schedule
+     * @param date day to schedule on
+     * @param rooms room labels as used by {@link Showtime#getRoom()}
+     * @return room label to free start times, in the order the rooms were given
+     */
+    public Map<String, List<LocalTime>> findFreeSlots(Media movie, LocalDate date, Collection<String> rooms) {
+        RoomSchedule schedule = Showtime.roomSchedule();
+        int buffer = schedule.getCleaningBufferMinutes();
+        long occupied = movie.getDurationMinutes() + buffer;
+        long dayStart = date.toEpochDay() * 24 * 60;
+        long first = dayStart + opening.toSecondOfDay() / 60;
+        long last = dayStart + lastStart.toSecondOfDay() / 60;
+
+        Map<String, List<LocalTime>> result = new LinkedHashMap<>();
+        for (String room : rooms) {
+            List<Showtime> booked = schedule.inWindow(room, first, last + occupied);
+            List<LocalTime> free = new ArrayList<>();
+            int next = 0;
+            for (long start = first; start <= last; start += stepMinutes) {
+                // Skip showings that are over (room cleaned) before this candidate starts.
+                while (next < booked.size() && RoomSchedule.endMinute(booked.get(next), buffer) <= start) next++;
+                if (next == booked.size() || RoomSchedule.startMinute(booked.get(next)) >= start + occupied) {
+                    free.add(LocalTime.ofSecondOfDay((start - dayStart) * 60));
+                }
+            }
+            result.put(room, free);
+        }
+        return result;
+    }
+
+    /**
+     * Lists every start time on the given day that is free in at least one of the rooms.
+     * @param movie movie to schedule
+     * @param date day to schedule on
+     * @param rooms room labels
+     * @return sorted free start times
+     */
+    public SortedSet<LocalTime> findStartTimes(Media movie, LocalDate date, Collection<String> rooms) {
+        SortedSet<LocalTime> times = new TreeSet<>();
+        for (List<LocalTime> free : findFreeSlots(movie, date, rooms).values()) times.addAll(free);
+        return times;
+    }
+}
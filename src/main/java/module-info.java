@@ -1,6 +1,7 @@
 module com.example.finalprojectoop {
     requires javafx.controls;
     requires javafx.fxml;
+    requires java.sql;
 
 
     opens com.example.finalprojectoop to javafx.fxml;
@@ -10,4 +11,5 @@ module com.example.finalprojectoop {
     opens model to javafx.fxml;
     exports model;
     exports Helper;
+    exports persistence;
 }
\ No newline at end of file
@@ -0,0 +1,354 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable, append-only journal of model changes with group commit.
+ * <p>
+ * Any number of threads {@link #append(JournalRecord) append} records; appends only encode
+ * the record and put it on a bounded queue (blocking when the queue is full, which slows
+ * writers down instead of running out of memory). A single writer thread drains whatever
+ * has queued up, writes it with one {@link FileChannel} call and, depending on the
+ * {@link FsyncPolicy}, forces it to disk once for the whole batch. The future returned by
+ * {@code append} completes when the record is as durable as the policy promises, so
+ * thousands of bookings share one fsync instead of paying one each.
+ * <p>
+ * On disk every record is framed as {@code int length, int crc32c, body}. Opening a journal
+ * scans it and cuts off a torn or corrupt tail left by a crash. The framing does not depend on
+ * the body, so the file store also uses this class for its log of encoded rows.
+ */
+public final class BookingJournal implements AutoCloseable {
+
+    /** Default file name inside the data directory. */
+    public static final String FILE_NAME = "bookings.journal";
+
+    private static final int FRAME_HEADER = 8;
+    private static final int QUEUE_CAPACITY = 64 * 1024;
+    private static final int MAX_BATCH = 8 * 1024;
+    /** Largest accepted record body; anything bigger in the file is treated as corruption. */
+    private static final int MAX_RECORD = 1 << 20;
+    private static final int READ_BUFFER = 1 << 20;
+
+    /** A record waiting to be written. */
+    private record Pending(byte[] body, CompletableFuture<Long> done) { }
+    /** Queued by {@link #close()} to stop the writer after everything before it. */
+    private static final Pending STOP = new Pending(new byte[0], null);
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+    private final long intervalNanos;
+    private final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer batchBuffer = ByteBuffer.allocateDirect(256 * 1024);
+
+    private volatile boolean closed;
+    private volatile IOException failure;
+    /** End of the written data; only changed by the writer thread. */
+    private volatile long position;
+    private volatile long records;
+    private volatile long batches;
+    private volatile long syncs;
+
+    private BookingJournal(Path file, FileChannel channel, long position, FsyncPolicy policy, Duration interval) {
+        this.file = file;
+        this.channel = channel;
+        this.position = position;
+        this.policy = policy;
+        this.intervalNanos = interval.toNanos();
+        this.writer = new Thread(this::writeLoop, "booking-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Opens (or creates) a journal file for appending. A torn tail from an earlier crash is truncated.
+     * @param file journal file
+     * @param policy fsync policy
+     * @param interval minimum time between forced writes for {@link FsyncPolicy#INTERVAL}
+     * @return the open journal
+     * @throws IOException if the file cannot be opened
+     */
+    public static BookingJournal open(Path file, FsyncPolicy policy, Duration interval) throws IOException {
+        if (policy == null || interval == null) throw new IllegalArgumentException("Policy and interval are required");
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        long validEnd = Files.exists(file) ? readFrames(file, 0, body -> true) : 0;
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() > validEnd) {
+            System.out.printf("Journal %s: dropping %d bytes of incomplete records%n", file, channel.size() - validEnd);
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        channel.position(validEnd);
+        return new BookingJournal(file, channel, validEnd, policy, interval);
+    }
+
+    /**
+     * Reads records from a journal file until its end or the first incomplete or corrupt record.
+     * @param file journal file
+     * @param from byte offset of the first record to read (0 or a value returned earlier)
+     * @param consumer receives every valid record in order
+     * @return offset just after the last valid record
+     * @throws IOException if the file cannot be read
+     */
+    public static long read(Path file, long from, Consumer<JournalRecord> consumer) throws IOException {
+        return readFrames(file, from, body -> {
+            JournalRecord record;
+            try {
+                record = JournalRecord.decode(body);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            consumer.accept(record);
+            return true;
+        });
+    }
+
+    /**
+     * Reads frame bodies until the end of the file, the first incomplete or corrupt frame, or
+     * until the consumer returns {@code false}.
+     * @param file journal file
+     * @param from byte offset of the first frame
+     * @param consumer receives every valid body; returns {@code false} to stop before it
+     * @return offset just after the last accepted frame
+     * @throws IOException if the file cannot be read
+     */
+    static long readFrames(Path file, long from, Predicate<ByteBuffer> consumer) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            long offset = from;
+            // Records are small, so read the file in large chunks rather than two reads per record.
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER).limit(0);
+            CRC32C check = new CRC32C();
+            while (offset + FRAME_HEADER <= size) {
+                if (buffer.remaining() < FRAME_HEADER) buffer = refill(in, buffer, offset, FRAME_HEADER);
+                int start = buffer.position();
+                int length = buffer.getInt(start);
+                int expectedCrc = buffer.getInt(start + 4);
+                if (length <= 0 || length > MAX_RECORD || offset + FRAME_HEADER + length > size) break;
+                if (buffer.remaining() < FRAME_HEADER + length) {
+                    buffer = refill(in, buffer, offset, FRAME_HEADER + length);
+                    start = buffer.position();
+                }
+                ByteBuffer body = buffer.slice(start + FRAME_HEADER, length);
+                check.reset();
+                check.update(body.duplicate());
+                if ((int) check.getValue() != expectedCrc || !consumer.test(body)) break;
+                buffer.position(start + FRAME_HEADER + length);
+                offset += FRAME_HEADER + length;
+            }
+            return offset;
+        }
+    }
+
+    /**
+     * Moves the unread bytes (which start at {@code offset} in the file) to the front of the
+     * buffer, growing it if needed, and fills the rest from the file.
+     */
+    private static ByteBuffer refill(FileChannel in, ByteBuffer buffer, long offset, int needed) throws IOException {
+        if (buffer.capacity() < needed) {
+            buffer = ByteBuffer.allocate(Integer.highestOneBit(needed) << 1).put(buffer);
+        } else {
+            buffer.compact();
+        }
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, offset + buffer.position()) < 0) break;
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Queues a record for the next group commit, blocking while the queue is full.
+     * @param record record to append
+     * @return completes with the journal offset after the record once it is durable per the
+     *         fsync policy, or exceptionally if the journal failed or was closed
+     */
+    public CompletableFuture<Long> append(JournalRecord record) {
+        return appendFrame(JournalRecord.encode(record));
+    }
+
+    /**
+     * Queues an already encoded body, see {@link #append(JournalRecord)}.
+     * @param body frame body
+     * @return completes with the journal offset after the frame once it is durable per the fsync policy
+     */
+    CompletableFuture<Long> appendFrame(byte[] body) {
+        if (body.length == 0 || body.length > MAX_RECORD) throw new IllegalArgumentException("Invalid record size " + body.length);
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        IOException error = failure;
+        if (error != null) {
+            done.completeExceptionally(error);
+            return done;
+        }
+        if (closed) {
+            done.completeExceptionally(new IllegalStateException("Journal is closed"));
+            return done;
+        }
+        try {
+            queue.put(new Pending(body, done));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            done.completeExceptionally(e);
+        }
+        return done;
+    }
+
+    /** @return journal file */
+    public Path getFile() { return file; }
+    /** @return offset just after the last written record */
+    public long getPosition() { return position; }
+    /** @return records written since opening */
+    public long getRecordCount() { return records; }
+    /** @return group-commit batches written since opening */
+    public long getBatchCount() { return batches; }
+    /** @return forced writes since opening */
+    public long getSyncCount() { return syncs; }
+    /** @return records waiting to be written */
+    public int getQueuedCount() { return queue.size(); }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        List<Pending> awaitingSync = new ArrayList<>();
+        long lastSync = System.nanoTime();
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                Pending first;
+                if (awaitingSync.isEmpty()) {
+                    first = queue.take();
+                } else {
+                    long wait = intervalNanos - (System.nanoTime() - lastSync);
+                    first = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                }
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    int stop = batch.indexOf(STOP);
+                    if (stop >= 0) {
+                        stopping = true;
+                        // Records queued behind the stop marker raced with close().
+                        List<Pending> late = batch.subList(stop, batch.size());
+                        fail(late, new IOException("Journal closed"));
+                        late.clear();
+                    }
+                    if (!batch.isEmpty()) {
+                        long end = writeBatch(batch);
+                        switch (policy) {
+                            case NONE -> complete(batch, end);
+                            case EVERY_BATCH -> {
+                                channel.force(false);
+                                syncs++;
+                                complete(batch, end);
+                            }
+                            case INTERVAL -> awaitingSync.addAll(batch);
+                        }
+                        batch.clear();
+                    }
+                }
+                if (!awaitingSync.isEmpty() && (stopping || System.nanoTime() - lastSync >= intervalNanos)) {
+                    channel.force(false);
+                    syncs++;
+                    lastSync = System.nanoTime();
+                    complete(awaitingSync, position);
+                    awaitingSync.clear();
+                }
+            } catch (InterruptedException e) {
+                stopping = true;
+                if (!awaitingSync.isEmpty()) {
+                    try {
+                        channel.force(false);
+                        syncs++;
+                        complete(awaitingSync, position);
+                    } catch (IOException error) {
+                        failure = error;
+                        fail(awaitingSync, error);
+                    }
+                    awaitingSync.clear();
+                }
+            } catch (IOException e) {
+                failure = e;
+                System.out.println("Booking journal failed: " + e);
+                fail(batch, e);
+                fail(awaitingSync, e);
+                List<Pending> rest = new ArrayList<>();
+                queue.drainTo(rest);
+                fail(rest, e);
+                return;
+            }
+        }
+    }
+
+    /** Writes a batch with one channel write; returns the end offset. */
+    private long writeBatch(List<Pending> batch) throws IOException {
+        int bytes = 0;
+        for (Pending pending : batch) bytes += FRAME_HEADER + pending.body().length;
+        if (batchBuffer.capacity() < bytes) batchBuffer = ByteBuffer.allocateDirect(Integer.highestOneBit(bytes) << 1);
+        ByteBuffer buffer = batchBuffer.clear();
+        for (Pending pending : batch) {
+            byte[] body = pending.body();
+            crc.reset();
+            crc.update(body);
+            buffer.putInt(body.length).putInt((int) crc.getValue()).put(body);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        position += bytes;
+        records += batch.size();
+        batches++;
+        return position;
+    }
+
+    private static void complete(List<Pending> done, long end) {
+        for (Pending pending : done) pending.done().complete(end);
+    }
+
+    private static void fail(List<Pending> failed, IOException error) {
+        for (Pending pending : failed) {
+            if (pending.done() != null) pending.done().completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Writes and forces everything appended so far, then closes the file.
+     * Appends after this call fail.
+     * @throws IOException if the final write or close fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            queue.put(STOP);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Records that raced with close() and were queued behind the stop marker.
+        List<Pending> late = new ArrayList<>();
+        queue.drainTo(late);
+        late.remove(STOP);
+        fail(late, new IOException("Journal closed"));
+        try {
+            if (failure == null) channel.force(true);
+        } finally {
+            channel.close();
+        }
+        if (failure != null) throw failure;
+    }
+}
@@ -0,0 +1,292 @@
+package persistence;
+
+import Helper.CatalogService;
+import Helper.LargeDatasetGenerator;
+import Helper.SampleDataHelper;
+import model.Client;
+import model.Movie;
+import model.Room;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only binary catalog of rooms and movies, accessed through a memory mapping.
+ * <p>
+ * Opening a file only maps it and checks its header, so a catalog of 100,000 titles opens in
+ * about a millisecond. Entries are fixed-size records pointing into a shared string table;
+ * a {@link Movie} or {@link Room} object is only built, and its strings decoded, when an entry
+ * is first read (e.g. when a view shows it), and is then reused. {@link #getMovieTitle(int)}
+ * decodes a single title without building the movie.
+ * <p>
+ * The mapping is read-only, so several app processes on the same machine can open the same
+ * file and share its pages in the OS cache. {@link #write} replaces a file by atomic rename,
+ * so processes that still have the old version open keep reading it unchanged.
+ * <p>
+ * Layout (big-endian): a header of magic, format version, room count, movie count, string
+ * table offset and length; then rooms as {@code id, name, capacity}, then movies as
+ * {@code id, title, genre, minutes, rating}, where strings are offsets into the string table
+ * (-1 for {@code null}); then the table of length-prefixed UTF-8 strings, each stored once.
+ * <p>
+ * Loaded at startup instead of the sample catalog when {@value #PROPERTY} names a file.
+ */
+public final class CatalogFile {
+
+    /** System property naming the catalog file to load at startup. */
+    public static final String PROPERTY = "cinema.catalog.file";
+
+    private static final int MAGIC = 0x43434154; // "CCAT"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int ROOM_BYTES = 12;
+    private static final int MOVIE_BYTES = 20;
+
+    private final Path file;
+    private final MappedByteBuffer data;
+    private final int roomCount;
+    private final int movieCount;
+    private final int moviesStart;
+    private final int stringsStart;
+    private final int stringsEnd;
+    private final AtomicReferenceArray<Room> rooms;
+    private final AtomicReferenceArray<Movie> movies;
+
+    private CatalogFile(Path file, MappedByteBuffer data) throws IOException {
+        this.file = file;
+        this.data = data;
+        if (data.limit() < HEADER_BYTES || data.getInt(0) != MAGIC) throw new IOException("Not a catalog file: " + file);
+        int version = data.getInt(4);
+        if (version != FORMAT_VERSION) throw new IOException("Unsupported catalog version " + version + ": " + file);
+        this.roomCount = data.getInt(8);
+        this.movieCount = data.getInt(12);
+        this.stringsStart = data.getInt(16);
+        this.stringsEnd = stringsStart + data.getInt(20);
+        long roomsEnd = HEADER_BYTES + (long) roomCount * ROOM_BYTES;
+        if (roomCount < 0 || movieCount < 0 || roomsEnd + (long) movieCount * MOVIE_BYTES != stringsStart
+                || stringsEnd < stringsStart || stringsEnd != data.limit()) {
+            throw new IOException("Corrupt catalog file: " + file);
+        }
+        this.moviesStart = (int) roomsEnd;
+        this.rooms = new AtomicReferenceArray<>(roomCount);
+        this.movies = new AtomicReferenceArray<>(movieCount);
+    }
+
+    /**
+     * Maps a catalog file read-only.
+     * @param file catalog file
+     * @return the open catalog
+     * @throws IOException if the file cannot be mapped or is not a valid catalog
+     */
+    public static CatalogFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Catalog too large to map: " + file);
+            return new CatalogFile(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * @return the file named by {@value #PROPERTY}, or {@code null} if unset
+     */
+    public static Path getConfiguredFile() {
+        String value = System.getProperty(PROPERTY);
+        return value == null || value.isBlank() ? null : Path.of(value);
+    }
+
+    /**
+     * Writes a catalog file, replacing any existing one atomically.
+     * @param file target file
+     * @param rooms rooms to store
+     * @param movies movies to store
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, List<Room> rooms, List<Movie> movies) throws IOException {
+        StringTable strings = new StringTable();
+        ByteBuffer records = ByteBuffer.allocate(rooms.size() * ROOM_BYTES + movies.size() * MOVIE_BYTES);
+        for (Room room : rooms) {
+            records.putInt(strings.add(room.getRoomId())).putInt(strings.add(room.getRoomName())).putInt(room.getCapacity());
+        }
+        for (Movie movie : movies) {
+            records.putInt(strings.add(movie.getId())).putInt(strings.add(movie.getTitle())).putInt(strings.add(movie.getGenre()))
+                    .putInt(movie.getDurationMinutes()).putInt(strings.add(movie.getRating()));
+        }
+        long stringsStart = HEADER_BYTES + (long) records.capacity();
+        if (stringsStart + strings.size > Integer.MAX_VALUE) throw new IOException("Catalog too large: " + file);
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(rooms.size());
+                out.writeInt(movies.size());
+                out.writeInt((int) stringsStart);
+                out.writeInt(strings.size);
+                out.write(records.array());
+                strings.writeTo(out);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** @return mapped file */
+    public Path getFile() { return file; }
+    /** @return number of rooms */
+    public int getRoomCount() { return roomCount; }
+    /** @return number of movies */
+    public int getMovieCount() { return movieCount; }
+
+    /**
+     * Decodes one movie title without building the movie.
+     * @param index movie index
+     * @return the title
+     */
+    public String getMovieTitle(int index) {
+        return string(data.getInt(movieRecord(index) + 4));
+    }
+
+    /**
+     * Returns a room, building it on first access.
+     * @param index room index
+     * @return the room; the same instance on every call
+     */
+    public Room getRoom(int index) {
+        Room room = rooms.get(index);
+        if (room != null) return room;
+        int record = HEADER_BYTES + index * ROOM_BYTES;
+        room = new Room(string(data.getInt(record)), string(data.getInt(record + 4)), data.getInt(record + 8));
+        return rooms.compareAndSet(index, null, room) ? room : rooms.get(index);
+    }
+
+    /**
+     * Returns a movie, building it on first access.
+     * @param index movie index
+     * @return the movie; the same instance on every call
+     */
+    public Movie getMovie(int index) {
+        Movie movie = movies.get(index);
+        if (movie != null) return movie;
+        int record = movieRecord(index);
+        movie = Movie.restore(string(data.getInt(record)), string(data.getInt(record + 4)), string(data.getInt(record + 8)),
+                data.getInt(record + 12), string(data.getInt(record + 16)));
+        return movies.compareAndSet(index, null, movie) ? movie : movies.get(index);
+    }
+
+    /** @return immutable view of the rooms; entries are built as they are read */
+    public List<Room> getRooms() { return new MappedList<>(roomCount, this::getRoom); }
+
+    /** @return immutable view of the movies; entries are built as they are read */
+    public List<Movie> getMovies() { return new MappedList<>(movieCount, this::getMovie); }
+
+    /**
+     * @return the catalog as startup data: its rooms and movies, the registered clients and no showtimes
+     */
+    public SampleDataHelper.Data toData() {
+        return new SampleDataHelper.Data(getRooms(), getMovies(), Client.getRegisteredClientsSnapshot(), List.of());
+    }
+
+    private int movieRecord(int index) {
+        if (index < 0 || index >= movieCount) throw new IndexOutOfBoundsException(index);
+        return moviesStart + index * MOVIE_BYTES;
+    }
+
+    private String string(int ref) {
+        if (ref < 0) return null;
+        int at = stringsStart + ref;
+        int length = data.getInt(at);
+        byte[] bytes = new byte[length];
+        data.get(at + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Immutable, random-access list over mapped entries. The catalog keeps it as is
+     * instead of copying, which would build every entry.
+     */
+    private static final class MappedList<T> extends AbstractList<T> implements CatalogService.ImmutableView {
+        private final int size;
+        private final IntFunction<T> entry;
+
+        private MappedList(int size, IntFunction<T> entry) {
+            this.size = size;
+            this.entry = entry;
+        }
+
+        @Override public T get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+            return entry.apply(index);
+        }
+
+        @Override public int size() { return size; }
+    }
+
+    /** Deduplicated strings in the order they are first added. */
+    private static final class StringTable {
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private int size;
+
+        int add(String value) {
+            if (value == null) return -1;
+            Integer known = offsets.get(value);
+            if (known != null) return known;
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            int offset = size;
+            bytes.writeBytes(ByteBuffer.allocate(4).putInt(utf8.length).array());
+            bytes.writeBytes(utf8);
+            size += 4 + utf8.length;
+            offsets.put(value, offset);
+            return offset;
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            bytes.writeTo(out);
+        }
+    }
+
+    /**
+     * Writes a catalog file: {@code CatalogFile <file> [movies]}. Without a movie count the
+     * sample catalog is exported; with one, that many generated movies are written.
+     * @param args target file and optional movie count
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) throw new IllegalArgumentException("Usage: CatalogFile <file> [movies]");
+        Path file = Path.of(args[0]);
+        SampleDataHelper.Data sample = SampleDataHelper.load();
+        List<Movie> movies = args.length > 1
+                ? new LargeDatasetGenerator(1, 1, Integer.parseInt(args[1]), 0, 0).getMovies()
+                : sample.getMovies();
+        write(file, sample.getRooms(), movies);
+        long begin = System.nanoTime();
+        CatalogFile catalog = open(file);
+        System.out.printf("Wrote %d rooms and %d movies to %s (%d KB); reopened in %.2f ms%n",
+                catalog.getRoomCount(), catalog.getMovieCount(), file, Files.size(file) / 1024,
+                (System.nanoTime() - begin) / 1e6);
+    }
+}
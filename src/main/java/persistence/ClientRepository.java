@@ -0,0 +1,9 @@
+package persistence;
+
+import model.Client;
+
+/**
+ * Client accounts keyed by username. Clients are stored with their password hash.
+ */
+public interface ClientRepository extends Repository<String, Client> {
+}
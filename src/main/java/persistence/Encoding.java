@@ -0,0 +1,81 @@
+package persistence;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary field encoding shared by the journal records and the file store: big-endian numbers
+ * and strings as an int length followed by UTF-8 bytes, with length -1 for {@code null}.
+ */
+final class Encoding {
+
+    private Encoding() { /* static helper, no instantiation */ }
+
+    /**
+     * Reads a string written by {@link Writer#string(String)}.
+     * @param in buffer positioned at the length
+     * @return the string, or {@code null}
+     */
+    static String string(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads longs written by {@link Writer#longs(long[])}.
+     * @param in buffer positioned at the count
+     * @return the values, or {@code null}
+     */
+    static long[] longs(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0) return null;
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) values[i] = in.getLong();
+        return values;
+    }
+
+    /** Growable buffer for encoding. */
+    static final class Writer {
+        private ByteBuffer buffer = ByteBuffer.allocate(128);
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() >= bytes) return;
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+
+        Writer putByte(byte value) { ensure(1); buffer.put(value); return this; }
+
+        Writer putInt(int value) { ensure(4); buffer.putInt(value); return this; }
+
+        Writer putLong(long value) { ensure(8); buffer.putLong(value); return this; }
+
+        Writer string(String value) {
+            if (value == null) return putInt(-1);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            ensure(bytes.length);
+            buffer.put(bytes);
+            return this;
+        }
+
+        Writer longs(long[] values) {
+            if (values == null) return putInt(-1);
+            putInt(values.length);
+            ensure(values.length * 8);
+            for (long value : values) buffer.putLong(value);
+            return this;
+        }
+
+        byte[] toArray() {
+            byte[] bytes = new byte[buffer.position()];
+            buffer.flip().get(bytes);
+            return bytes;
+        }
+    }
+}
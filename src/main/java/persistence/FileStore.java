@@ -0,0 +1,259 @@
+package persistence;
+
+import model.Client;
+import model.Movie;
+import model.Room;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.BufferUnderflowException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Store for small and medium sites: all entities are kept in memory and every save or delete
+ * is appended to a log file on local disk.
+ * <p>
+ * The log uses the {@link BookingJournal} framing and writer, so concurrent saves share one
+ * group-committed write and a torn tail from a crash is cut off on open. Saves do not wait
+ * for the disk; {@link #flush()} does. A failed log write is not reported by the save that
+ * queued it but by {@code flush()}, and every later save or delete then throws
+ * {@link IllegalStateException}, so a broken log is never mistaken for a durable one.
+ * Opening the store replays the log; when most of it is overwritten entries, it is
+ * compacted into a fresh log holding each entity once.
+ */
+public class FileStore implements Store {
+
+    /** Log file name inside the store directory. */
+    public static final String FILE_NAME = "store.log";
+
+    private static final byte NOOP = 0;
+    private static final byte CLIENT_SAVED = 1, CLIENT_DELETED = 2;
+    private static final byte ROOM_SAVED = 3, ROOM_DELETED = 4;
+    private static final byte MOVIE_SAVED = 5, MOVIE_DELETED = 6;
+    private static final byte SHOWTIME_SAVED = 7, SHOWTIME_DELETED = 8;
+    /** Locks that keep the map and the log in the same order for saves of one key. */
+    private static final int LOCK_STRIPES = 64;
+
+    private final MemoryStore memory = new MemoryStore();
+    private final BookingJournal log;
+    private final Clients clients;
+    private final Rooms rooms;
+    private final Movies movies;
+    private final Showtimes showtimes;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    /** First failed log write, or {@code null}; the log accepts nothing after it. */
+    private volatile Throwable failure;
+
+    private FileStore(BookingJournal log) {
+        this.log = log;
+        for (int i = 0; i < LOCK_STRIPES; i++) locks[i] = new Object();
+        this.clients = new Clients();
+        this.rooms = new Rooms();
+        this.movies = new Movies();
+        this.showtimes = new Showtimes();
+    }
+
+    /**
+     * Opens (or creates) the store in a directory and loads its log.
+     * @param dir store directory
+     * @param policy fsync policy of the log
+     * @return the open store
+     * @throws IOException if the log cannot be read or opened
+     */
+    public static FileStore open(Path dir, FsyncPolicy policy) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve(FILE_NAME);
+        MemoryStore loaded = new MemoryStore();
+        long[] frames = new long[1];
+        if (Files.exists(file)) {
+            BookingJournal.readFrames(file, 0, body -> {
+                frames[0]++;
+                return apply(loaded, body);
+            });
+        }
+        long live = (long) loaded.clients().count() + loaded.rooms().count() + loaded.movies().count() + loaded.showtimes().count();
+        if (frames[0] > 2 * live + 1024) compact(file, loaded);
+
+        FileStore store = new FileStore(BookingJournal.open(file, policy, Duration.ofMillis(50)));
+        store.memory.clients().saveAll(loaded.clients().findAll());
+        store.memory.rooms().saveAll(loaded.rooms().findAll());
+        store.memory.movies().saveAll(loaded.movies().findAll());
+        store.memory.showtimes().saveAll(loaded.showtimes().findAll());
+        return store;
+    }
+
+    /** Rewrites the log with one entry per live entity and swaps it in atomically. */
+    private static void compact(Path file, MemoryStore live) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".compact");
+        Files.deleteIfExists(temp);
+        try (BookingJournal out = BookingJournal.open(temp, FsyncPolicy.NONE, Duration.ZERO)) {
+            for (Client client : live.clients().findAll()) out.appendFrame(encodeClient(client));
+            for (Room room : live.rooms().findAll()) out.appendFrame(encodeRoom(room));
+            for (Movie movie : live.movies().findAll()) out.appendFrame(encodeMovie(movie));
+            for (ShowtimeRow row : live.showtimes().findAll()) out.appendFrame(encodeShowtime(row));
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override public String getName() { return "file"; }
+    @Override public ClientRepository clients() { return clients; }
+    @Override public RoomRepository rooms() { return rooms; }
+    @Override public MovieRepository movies() { return movies; }
+    @Override public ShowtimeRepository showtimes() { return showtimes; }
+
+    /** Appends a marker and waits for it: frames complete in order, so everything before it is durable. */
+    @Override
+    public void flush() throws IOException {
+        Throwable error = failure;
+        if (error != null) throw new IOException("Store log failed", error);
+        try {
+            log.appendFrame(new byte[] {NOOP}).join();
+        } catch (RuntimeException e) {
+            throw new IOException("Store log failed", e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    /** @throws IllegalStateException if an earlier log write failed */
+    private void checkLog() {
+        Throwable error = failure;
+        if (error != null) throw new IllegalStateException("Store log failed", error);
+    }
+
+    /** Queues one log entry and remembers if it fails. */
+    private void append(byte[] frame) {
+        log.appendFrame(frame).whenComplete((end, e) -> {
+            if (e != null && failure == null) failure = e;
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    /** Applies one log entry to the loaded state; {@code false} if it cannot be decoded. */
+    private static boolean apply(MemoryStore store, ByteBuffer in) {
+        try {
+            switch (in.get()) {
+                case NOOP -> { }
+                case CLIENT_SAVED -> store.clients().save(Client.createDetached(Encoding.string(in), Encoding.string(in), Encoding.string(in)));
+                case CLIENT_DELETED -> store.clients().delete(Encoding.string(in));
+                case ROOM_SAVED -> store.rooms().save(new Room(Encoding.string(in), Encoding.string(in), in.getInt()));
+                case ROOM_DELETED -> store.rooms().delete(Encoding.string(in));
+                case MOVIE_SAVED -> store.movies().save(Movie.restore(Encoding.string(in), Encoding.string(in), Encoding.string(in), in.getInt(), Encoding.string(in)));
+                case MOVIE_DELETED -> store.movies().delete(Encoding.string(in));
+                case SHOWTIME_SAVED -> store.showtimes().save(new ShowtimeRow(in.getLong(), Encoding.string(in), LocalDate.ofEpochDay(in.getLong()),
+                        Encoding.string(in), Encoding.string(in), in.getInt(), in.getInt(), in.getInt(), Encoding.longs(in)));
+                case SHOWTIME_DELETED -> store.showtimes().delete(in.getLong());
+                default -> { return false; }
+            }
+            return true;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static byte[] encodeClient(Client client) {
+        return new Encoding.Writer().putByte(CLIENT_SAVED).string(client.getUsername()).string(client.getPassword()).string(client.getEmail()).toArray();
+    }
+
+    private static byte[] encodeRoom(Room room) {
+        return new Encoding.Writer().putByte(ROOM_SAVED).string(room.getRoomId()).string(room.getRoomName()).putInt(room.getCapacity()).toArray();
+    }
+
+    private static byte[] encodeMovie(Movie movie) {
+        return new Encoding.Writer().putByte(MOVIE_SAVED).string(movie.getId()).string(movie.getTitle()).string(movie.getGenre())
+                .putInt(movie.getDurationMinutes()).string(movie.getRating()).toArray();
+    }
+
+    private static byte[] encodeShowtime(ShowtimeRow row) {
+        return new Encoding.Writer().putByte(SHOWTIME_SAVED).putLong(row.id()).string(row.movieId()).putLong(row.date().toEpochDay())
+                .string(row.time()).string(row.room()).putInt(row.capacity()).putInt(row.seatVersion()).putInt(row.available())
+                .longs(row.seatWords()).toArray();
+    }
+
+    private static byte[] encodeStringKey(byte op, String key) {
+        return new Encoding.Writer().putByte(op).string(key).toArray();
+    }
+
+    /**
+     * Repository that updates the in-memory map and appends the change to the log.
+     * @param <K> key type
+     * @param <T> entity type
+     */
+    private class Logged<K, T> implements Repository<K, T> {
+        private final Repository<K, T> map;
+        private final Function<T, K> key;
+        private final Function<T, byte[]> encodeSave;
+        private final Function<K, byte[]> encodeDelete;
+
+        Logged(Repository<K, T> map, Function<T, K> key, Function<T, byte[]> encodeSave, Function<K, byte[]> encodeDelete) {
+            this.map = map;
+            this.key = key;
+            this.encodeSave = encodeSave;
+            this.encodeDelete = encodeDelete;
+        }
+
+        private Object lockFor(K k) { return locks[(k.hashCode() & 0x7FFFFFFF) % LOCK_STRIPES]; }
+
+        @Override public T find(K k) { return map.find(k); }
+        @Override public List<T> findAll() { return map.findAll(); }
+        @Override public int count() { return map.count(); }
+
+        @Override
+        public void save(T item) {
+            byte[] frame = encodeSave.apply(item);
+            K k = key.apply(item);
+            synchronized (lockFor(k)) {
+                checkLog();
+                map.save(item);
+                append(frame);
+            }
+        }
+
+        @Override
+        public void saveAll(Collection<? extends T> items) {
+            for (T item : items) save(item);
+        }
+
+        @Override
+        public boolean delete(K k) {
+            if (k == null) return false;
+            synchronized (lockFor(k)) {
+                checkLog();
+                if (!map.delete(k)) return false;
+                append(encodeDelete.apply(k));
+                return true;
+            }
+        }
+    }
+
+    private final class Clients extends Logged<String, Client> implements ClientRepository {
+        Clients() { super(memory.clients(), Client::getUsername, FileStore::encodeClient, k -> encodeStringKey(CLIENT_DELETED, k)); }
+    }
+
+    private final class Rooms extends Logged<String, Room> implements RoomRepository {
+        Rooms() { super(memory.rooms(), Room::getRoomId, FileStore::encodeRoom, k -> encodeStringKey(ROOM_DELETED, k)); }
+    }
+
+    private final class Movies extends Logged<String, Movie> implements MovieRepository {
+        Movies() { super(memory.movies(), Movie::getId, FileStore::encodeMovie, k -> encodeStringKey(MOVIE_DELETED, k)); }
+    }
+
+    private final class Showtimes extends Logged<Long, ShowtimeRow> implements ShowtimeRepository {
+        Showtimes() {
+            super(memory.showtimes(), ShowtimeRow::id, FileStore::encodeShowtime,
+                    k -> new Encoding.Writer().putByte(SHOWTIME_DELETED).putLong(k).toArray());
+        }
+
+        @Override
+        public List<ShowtimeRow> findByMovie(String movieId) { return memory.showtimes().findByMovie(movieId); }
+    }
+}
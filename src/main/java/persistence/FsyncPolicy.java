@@ -0,0 +1,24 @@
+package persistence;
+
+/**
+ * When the booking journal forces written records to the storage device.
+ */
+public enum FsyncPolicy {
+    /** Force after every group-commit batch; a confirmed record survives power loss. */
+    EVERY_BATCH,
+    /** Force at most once per configured interval; a crash may lose up to one interval of records. */
+    INTERVAL,
+    /** Never force; the operating system writes the data back when it likes. */
+    NONE;
+
+    /**
+     * Parses a policy name such as {@code every-batch}, {@code interval} or {@code none}.
+     * @param name policy name, case-insensitive, dashes allowed
+     * @return the policy
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static FsyncPolicy parse(String name) {
+        if (name == null) throw new IllegalArgumentException("Fsync policy cannot be null");
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,362 @@
+package persistence;
+
+import model.Client;
+import model.Movie;
+import model.Room;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Store backed by an embedded SQL database (H2 by default) for large sites.
+ * <p>
+ * One connection is opened for the life of the store and each statement is prepared once and
+ * reused; calls are serialized on the connection. {@code saveAll} writes in batches inside
+ * one transaction. Seat maps are stored as a binary column, eight big-endian bytes per word,
+ * which bounds a showtime to {@value #MAX_SEAT_BYTES} bytes, i.e. 65,536 seats.
+ * Database errors are rethrown as {@link IllegalStateException}.
+ * <p>
+ * Saves use H2's {@code MERGE INTO ... KEY (...)} upsert. Other databases need their own
+ * upsert statement and a driver on the class path.
+ */
+public class JdbcStore implements Store {
+
+    /** Rows sent per batch by {@code saveAll}. */
+    private static final int BATCH_SIZE = 1000;
+    /** Length of the seat map column. */
+    private static final int MAX_SEAT_BYTES = 8192;
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS clients (username VARCHAR(255) PRIMARY KEY, password VARCHAR(255), email VARCHAR(255))",
+            "CREATE TABLE IF NOT EXISTS rooms (room_id VARCHAR(255) PRIMARY KEY, room_name VARCHAR(255), capacity INT)",
+            "CREATE TABLE IF NOT EXISTS movies (id VARCHAR(255) PRIMARY KEY, title VARCHAR(1024), genre VARCHAR(255), "
+                    + "duration_minutes INT, rating VARCHAR(32))",
+            "CREATE TABLE IF NOT EXISTS showtimes (id BIGINT PRIMARY KEY, movie_id VARCHAR(255) NOT NULL, show_date DATE, "
+                    + "show_time VARCHAR(32), room VARCHAR(255), capacity INT, seat_version INT, available INT, "
+                    + "seat_words VARBINARY(" + MAX_SEAT_BYTES + "))",
+            "CREATE INDEX IF NOT EXISTS showtimes_movie ON showtimes (movie_id)",
+    };
+
+    private final String url;
+    private final Connection connection;
+    private final Clients clients;
+    private final Rooms rooms;
+    private final Movies movies;
+    private final Showtimes showtimes;
+
+    private JdbcStore(String url, Connection connection) {
+        this.url = url;
+        this.connection = connection;
+        this.clients = new Clients();
+        this.rooms = new Rooms();
+        this.movies = new Movies();
+        this.showtimes = new Showtimes();
+    }
+
+    /**
+     * Connects to a database and creates the tables that are missing.
+     * @param url JDBC URL, e.g. {@code jdbc:h2:file:data/cinema}
+     * @return the open store
+     * @throws IOException if the database cannot be opened
+     */
+    public static JdbcStore open(String url) throws IOException {
+        try {
+            Connection connection = DriverManager.getConnection(url);
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : SCHEMA) statement.execute(sql);
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+            return new JdbcStore(url, connection);
+        } catch (SQLException e) {
+            throw new IOException("Could not open database " + url, e);
+        }
+    }
+
+    /** @return JDBC URL of the database */
+    public String getUrl() { return url; }
+
+    @Override public String getName() { return "jdbc"; }
+    @Override public ClientRepository clients() { return clients; }
+    @Override public RoomRepository rooms() { return rooms; }
+    @Override public MovieRepository movies() { return movies; }
+    @Override public ShowtimeRepository showtimes() { return showtimes; }
+
+    /** Statements run in auto-commit mode, so every completed save is already committed. */
+    @Override
+    public void flush() { }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (connection) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                throw new IOException("Could not close database " + url, e);
+            }
+        }
+    }
+
+    private static byte[] toBytes(long[] words) throws SQLException {
+        if (words == null) return null;
+        if (words.length * Long.BYTES > MAX_SEAT_BYTES) throw new SQLException("Seat map exceeds " + MAX_SEAT_BYTES + " bytes");
+        ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES);
+        for (long word : words) buffer.putLong(word);
+        return buffer.array();
+    }
+
+    private static long[] toWords(byte[] bytes) {
+        if (bytes == null) return null;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long[] words = new long[bytes.length / Long.BYTES];
+        for (int i = 0; i < words.length; i++) words[i] = buffer.getLong();
+        return words;
+    }
+
+    /** Sets statement parameters from a value. */
+    @FunctionalInterface
+    private interface Binder<T> {
+        void bind(PreparedStatement statement, T value) throws SQLException;
+    }
+
+    /** Builds a value from the current result row. */
+    @FunctionalInterface
+    private interface RowReader<T> {
+        T read(ResultSet row) throws SQLException;
+    }
+
+    /**
+     * Repository over one table, with its statements prepared on first use.
+     * @param <K> key type
+     * @param <T> entity type
+     */
+    private class Table<K, T> implements Repository<K, T> {
+        private final String findSql, findAllSql, mergeSql, deleteSql, countSql;
+        private final Binder<K> bindKey;
+        private final Binder<T> bindRow;
+        private final RowReader<T> reader;
+        private final Function<T, K> key;
+        private PreparedStatement find, findAll, merge, delete, count;
+
+        /**
+         * @param table table name
+         * @param columns all columns, key first, in the order {@code bindRow} sets them
+         */
+        Table(String table, String columns, Function<T, K> key, Binder<K> bindKey, Binder<T> bindRow, RowReader<T> reader) {
+            String keyColumn = columns.substring(0, columns.indexOf(',')).trim();
+            String parameters = "?" + ", ?".repeat((int) columns.chars().filter(c -> c == ',').count());
+            this.findSql = "SELECT " + columns + " FROM " + table + " WHERE " + keyColumn + " = ?";
+            this.findAllSql = "SELECT " + columns + " FROM " + table;
+            this.mergeSql = "MERGE INTO " + table + " (" + columns + ") KEY (" + keyColumn + ") VALUES (" + parameters + ")";
+            this.deleteSql = "DELETE FROM " + table + " WHERE " + keyColumn + " = ?";
+            this.countSql = "SELECT COUNT(*) FROM " + table;
+            this.key = key;
+            this.bindKey = bindKey;
+            this.bindRow = bindRow;
+            this.reader = reader;
+        }
+
+        PreparedStatement prepare(PreparedStatement cached, String sql) throws SQLException {
+            return cached != null ? cached : connection.prepareStatement(sql);
+        }
+
+        List<T> readAll(PreparedStatement statement) throws SQLException {
+            List<T> items = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) items.add(reader.read(rows));
+            }
+            return items;
+        }
+
+        @Override
+        public T find(K k) {
+            if (k == null) return null;
+            synchronized (connection) {
+                try {
+                    find = prepare(find, findSql);
+                    bindKey.bind(find, k);
+                    List<T> items = readAll(find);
+                    return items.isEmpty() ? null : items.get(0);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not read " + k, e);
+                }
+            }
+        }
+
+        @Override
+        public List<T> findAll() {
+            synchronized (connection) {
+                try {
+                    findAll = prepare(findAll, findAllSql);
+                    return readAll(findAll);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not read table", e);
+                }
+            }
+        }
+
+        @Override
+        public void save(T item) {
+            synchronized (connection) {
+                try {
+                    merge = prepare(merge, mergeSql);
+                    bindRow.bind(merge, item);
+                    merge.executeUpdate();
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not save " + key.apply(item), e);
+                }
+            }
+        }
+
+        @Override
+        public void saveAll(Collection<? extends T> items) {
+            if (items.isEmpty()) return;
+            synchronized (connection) {
+                try {
+                    merge = prepare(merge, mergeSql);
+                    connection.setAutoCommit(false);
+                    try {
+                        int pending = 0;
+                        for (T item : items) {
+                            bindRow.bind(merge, item);
+                            merge.addBatch();
+                            if (++pending == BATCH_SIZE) {
+                                merge.executeBatch();
+                                pending = 0;
+                            }
+                        }
+                        if (pending > 0) merge.executeBatch();
+                        connection.commit();
+                    } catch (SQLException e) {
+                        merge.clearBatch();
+                        connection.rollback();
+                        throw e;
+                    } finally {
+                        connection.setAutoCommit(true);
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not save " + items.size() + " rows", e);
+                }
+            }
+        }
+
+        @Override
+        public boolean delete(K k) {
+            if (k == null) return false;
+            synchronized (connection) {
+                try {
+                    delete = prepare(delete, deleteSql);
+                    bindKey.bind(delete, k);
+                    return delete.executeUpdate() > 0;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not delete " + k, e);
+                }
+            }
+        }
+
+        @Override
+        public int count() {
+            synchronized (connection) {
+                try {
+                    count = prepare(count, countSql);
+                    try (ResultSet rows = count.executeQuery()) {
+                        return rows.next() ? rows.getInt(1) : 0;
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not count rows", e);
+                }
+            }
+        }
+    }
+
+    private final class Clients extends Table<String, Client> implements ClientRepository {
+        Clients() {
+            super("clients", "username, password, email", Client::getUsername,
+                    (s, k) -> s.setString(1, k),
+                    (s, c) -> {
+                        s.setString(1, c.getUsername());
+                        s.setString(2, c.getPassword());
+                        s.setString(3, c.getEmail());
+                    },
+                    r -> Client.createDetached(r.getString(1), r.getString(2), r.getString(3)));
+        }
+    }
+
+    private final class Rooms extends Table<String, Room> implements RoomRepository {
+        Rooms() {
+            super("rooms", "room_id, room_name, capacity", Room::getRoomId,
+                    (s, k) -> s.setString(1, k),
+                    (s, r) -> {
+                        s.setString(1, r.getRoomId());
+                        s.setString(2, r.getRoomName());
+                        s.setInt(3, r.getCapacity());
+                    },
+                    r -> new Room(r.getString(1), r.getString(2), r.getInt(3)));
+        }
+    }
+
+    private final class Movies extends Table<String, Movie> implements MovieRepository {
+        Movies() {
+            super("movies", "id, title, genre, duration_minutes, rating", Movie::getId,
+                    (s, k) -> s.setString(1, k),
+                    (s, m) -> {
+                        s.setString(1, m.getId());
+                        s.setString(2, m.getTitle());
+                        s.setString(3, m.getGenre());
+                        s.setInt(4, m.getDurationMinutes());
+                        s.setString(5, m.getRating());
+                    },
+                    r -> Movie.restore(r.getString(1), r.getString(2), r.getString(3), r.getInt(4), r.getString(5)));
+        }
+    }
+
+    private final class Showtimes extends Table<Long, ShowtimeRow> implements ShowtimeRepository {
+        private static final String COLUMNS = "id, movie_id, show_date, show_time, room, capacity, seat_version, available, seat_words";
+        private PreparedStatement byMovie;
+
+        Showtimes() {
+            super("showtimes", COLUMNS, ShowtimeRow::id,
+                    (s, k) -> s.setLong(1, k),
+                    (s, row) -> {
+                        s.setLong(1, row.id());
+                        s.setString(2, row.movieId());
+                        s.setObject(3, row.date());
+                        s.setString(4, row.time());
+                        s.setString(5, row.room());
+                        s.setInt(6, row.capacity());
+                        s.setInt(7, row.seatVersion());
+                        s.setInt(8, row.available());
+                        if (row.seatWords() == null) s.setNull(9, Types.VARBINARY);
+                        else s.setBytes(9, toBytes(row.seatWords()));
+                    },
+                    r -> new ShowtimeRow(r.getLong(1), r.getString(2), r.getObject(3, LocalDate.class), r.getString(4),
+                            r.getString(5), r.getInt(6), r.getInt(7), r.getInt(8), toWords(r.getBytes(9))));
+        }
+
+        @Override
+        public List<ShowtimeRow> findByMovie(String movieId) {
+            synchronized (connection) {
+                try {
+                    byMovie = prepare(byMovie, "SELECT " + COLUMNS + " FROM showtimes WHERE movie_id = ?");
+                    byMovie.setString(1, movieId);
+                    return readAll(byMovie);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not read showtimes of " + movieId, e);
+                }
+            }
+        }
+    }
+}
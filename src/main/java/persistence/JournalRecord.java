@@ -0,0 +1,123 @@
+package persistence;
+
+import model.Client;
+import model.Movie;
+import model.Showtime;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * One entry of the booking journal.
+ * <p>
+ * Every model change is one record. Records carry values, not object references, so they can
+ * be replayed into a fresh process: showtimes and movies are identified by their ids, clients
+ * by username. Seat changes carry the showtime's seat version and the seats available after
+ * the change, so replaying a record that is already reflected has no effect.
+ */
+public sealed interface JournalRecord {
+
+    /** @return type tag written in front of the record's fields */
+    byte tag();
+
+    record ClientRegistered(String username, String passwordHash, String email) implements JournalRecord {
+        public byte tag() { return 1; }
+        static ClientRegistered of(Client client) { return new ClientRegistered(client.getUsername(), client.getPassword(), client.getEmail()); }
+    }
+
+    record ClientUpdated(String username, String email) implements JournalRecord {
+        public byte tag() { return 2; }
+    }
+
+    record MovieAdded(String id, String title, String genre, int durationMinutes, String rating) implements JournalRecord {
+        public byte tag() { return 3; }
+        static MovieAdded of(Movie movie) {
+            return new MovieAdded(movie.getId(), movie.getTitle(), movie.getGenre(), movie.getDurationMinutes(), movie.getRating());
+        }
+    }
+
+    record MovieRemoved(String id) implements JournalRecord {
+        public byte tag() { return 4; }
+    }
+
+    /** A newly scheduled showtime, or ({@code update}) new movie, date, time or room of a scheduled one. */
+    record ShowtimeSaved(boolean update, long id, String movieId, long epochDay, String time, String room,
+                         int capacity, int seatVersion, int available) implements JournalRecord {
+        public byte tag() { return update ? (byte) 6 : (byte) 5; }
+        static ShowtimeSaved of(Showtime showtime, boolean update) {
+            return new ShowtimeSaved(update, showtime.getId(), showtime.getMovie().getId(), showtime.getDate().toEpochDay(),
+                    showtime.getTime(), showtime.getRoom(), showtime.getTotalCapacity(), showtime.getSeatVersion(), showtime.getAvailableSeats());
+        }
+    }
+
+    record ShowtimeRemoved(long id) implements JournalRecord {
+        public byte tag() { return 7; }
+    }
+
+    /** @param seats seats taken or freed, or {@code null} for a count-only change */
+    record SeatsChanged(long showtimeId, int delta, int[] seats, int version, int available) implements JournalRecord {
+        public byte tag() { return 8; }
+    }
+
+    /**
+     * Encodes a record as its tag followed by its fields.
+     * @param record record to encode
+     * @return encoded bytes
+     */
+    static byte[] encode(JournalRecord record) {
+        Encoding.Writer out = new Encoding.Writer().putByte(record.tag());
+        switch (record) {
+            case ClientRegistered r -> out.string(r.username()).string(r.passwordHash()).string(r.email());
+            case ClientUpdated r -> out.string(r.username()).string(r.email());
+            case MovieAdded r -> out.string(r.id()).string(r.title()).string(r.genre()).putInt(r.durationMinutes()).string(r.rating());
+            case MovieRemoved r -> out.string(r.id());
+            case ShowtimeSaved r -> out.putLong(r.id()).string(r.movieId()).putLong(r.epochDay()).string(r.time()).string(r.room())
+                    .putInt(r.capacity()).putInt(r.seatVersion()).putInt(r.available());
+            case ShowtimeRemoved r -> out.putLong(r.id());
+            case SeatsChanged r -> {
+                out.putLong(r.showtimeId()).putInt(r.delta()).putInt(r.version()).putInt(r.available());
+                int[] seats = r.seats();
+                out.putInt(seats == null ? -1 : seats.length);
+                if (seats != null) for (int seat : seats) out.putInt(seat);
+            }
+        }
+        return out.toArray();
+    }
+
+    /**
+     * Decodes a record written by {@link #encode(JournalRecord)}.
+     * @param in buffer positioned at the tag, limited to the record
+     * @return the record
+     * @throws IllegalArgumentException if the bytes are not a valid record
+     */
+    static JournalRecord decode(ByteBuffer in) {
+        try {
+            byte tag = in.get();
+            return switch (tag) {
+                case 1 -> new ClientRegistered(Encoding.string(in), Encoding.string(in), Encoding.string(in));
+                case 2 -> new ClientUpdated(Encoding.string(in), Encoding.string(in));
+                case 3 -> new MovieAdded(Encoding.string(in), Encoding.string(in), Encoding.string(in), in.getInt(), Encoding.string(in));
+                case 4 -> new MovieRemoved(Encoding.string(in));
+                case 5, 6 -> new ShowtimeSaved(tag == 6, in.getLong(), Encoding.string(in), in.getLong(), Encoding.string(in), Encoding.string(in),
+                        in.getInt(), in.getInt(), in.getInt());
+                case 7 -> new ShowtimeRemoved(in.getLong());
+                case 8 -> {
+                    long id = in.getLong();
+                    int delta = in.getInt();
+                    int version = in.getInt();
+                    int available = in.getInt();
+                    int count = in.getInt();
+                    int[] seats = null;
+                    if (count >= 0) {
+                        seats = new int[count];
+                        for (int i = 0; i < count; i++) seats[i] = in.getInt();
+                    }
+                    yield new SeatsChanged(id, delta, seats, version, available);
+                }
+                default -> throw new IllegalArgumentException("Unknown journal record type " + tag);
+            };
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated journal record", e);
+        }
+    }
+}
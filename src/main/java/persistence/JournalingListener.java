@@ -0,0 +1,112 @@
+package persistence;
+
+import model.Client;
+import model.ModelChangeListener;
+import model.Movie;
+import model.Showtime;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes every model change to a {@link BookingJournal}.
+ * <p>
+ * Callbacks only encode and queue the record, so bookings are not slowed down by disk
+ * writes unless the journal's queue is full. A caller that must not confirm a change before
+ * it is durable calls {@link #awaitDurable()} afterwards on the same thread; it waits for the
+ * last record that thread queued, and with it every earlier one, since records complete in order.
+ * <p>
+ * The first failed record is kept: once the journal has failed, every later record fails too,
+ * so {@link #getFailure()} and {@code awaitDurable()} report that changes are no longer durable.
+ */
+public class JournalingListener implements ModelChangeListener {
+
+    private final BookingJournal journal;
+    /** Last record queued by each thread. */
+    private final ThreadLocal<CompletableFuture<Long>> lastAppend = new ThreadLocal<>();
+    /** First failed record, or {@code null}. */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * @param journal journal receiving the records
+     */
+    public JournalingListener(BookingJournal journal) {
+        if (journal == null) throw new IllegalArgumentException("Journal cannot be null");
+        this.journal = journal;
+    }
+
+    /** @return why the journal stopped accepting records, or {@code null} while it works */
+    public Throwable getFailure() { return failure.get(); }
+
+    /**
+     * Waits until the last change made on this thread is durable per the journal's fsync policy.
+     * Returns at once if this thread has not changed anything since its last wait.
+     * @throws IOException if that record, or any record before it, could not be written
+     */
+    public void awaitDurable() throws IOException {
+        CompletableFuture<Long> last = lastAppend.get();
+        lastAppend.remove();
+        if (last != null) {
+            try {
+                last.join();
+            } catch (CompletionException | CancellationException e) {
+                throw new IOException("Change could not be journaled", e.getCause() != null ? e.getCause() : e);
+            }
+        }
+        Throwable error = failure.get();
+        if (error != null) throw new IOException("Journal failed, changes are not durable", error);
+    }
+
+    @Override
+    public void clientRegistered(Client client) {
+        append(JournalRecord.ClientRegistered.of(client));
+    }
+
+    @Override
+    public void clientUpdated(Client client) {
+        append(new JournalRecord.ClientUpdated(client.getUsername(), client.getEmail()));
+    }
+
+    @Override
+    public void movieAdded(Movie movie) {
+        append(JournalRecord.MovieAdded.of(movie));
+    }
+
+    @Override
+    public void movieRemoved(Movie movie) {
+        append(new JournalRecord.MovieRemoved(movie.getId()));
+    }
+
+    @Override
+    public void showtimeScheduled(Showtime showtime) {
+        append(JournalRecord.ShowtimeSaved.of(showtime, false));
+    }
+
+    @Override
+    public void showtimeUpdated(Showtime showtime) {
+        append(JournalRecord.ShowtimeSaved.of(showtime, true));
+    }
+
+    @Override
+    public void showtimeRemoved(Showtime showtime) {
+        append(new JournalRecord.ShowtimeRemoved(showtime.getId()));
+    }
+
+    @Override
+    public void seatsChanged(Showtime showtime, int delta, int[] seatIndexes, int version, int available) {
+        append(new JournalRecord.SeatsChanged(showtime.getId(), delta, seatIndexes, version, available));
+    }
+
+    private void append(JournalRecord record) {
+        CompletableFuture<Long> done = journal.append(record);
+        lastAppend.set(done);
+        done.whenComplete((end, error) -> {
+            if (error != null && failure.compareAndSet(null, error)) {
+                System.out.println("Journal failed, changes are no longer durable: " + error);
+            }
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package persistence;
+
+import model.Client;
+import model.Movie;
+import model.Room;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Store that keeps everything in concurrent hash maps. Nothing survives a restart; meant for
+ * small or demo sites, for tests, and as the in-memory part of {@link FileStore}.
+ */
+public class MemoryStore implements Store {
+
+    private final Clients clients = new Clients();
+    private final Rooms rooms = new Rooms();
+    private final Movies movies = new Movies();
+    private final Showtimes showtimes = new Showtimes();
+
+    @Override public String getName() { return "memory"; }
+    @Override public ClientRepository clients() { return clients; }
+    @Override public RoomRepository rooms() { return rooms; }
+    @Override public MovieRepository movies() { return movies; }
+    @Override public ShowtimeRepository showtimes() { return showtimes; }
+
+    /** Nothing to write. */
+    @Override public void flush() { }
+
+    /** Nothing to release. */
+    @Override public void close() { }
+
+    /**
+     * Map-backed repository.
+     * @param <K> key type
+     * @param <T> entity type
+     */
+    static class MapRepository<K, T> implements Repository<K, T> {
+        final ConcurrentMap<K, T> items = new ConcurrentHashMap<>();
+        private final Function<T, K> key;
+
+        MapRepository(Function<T, K> key) {
+            this.key = key;
+        }
+
+        K keyOf(T item) { return key.apply(item); }
+
+        @Override public T find(K key) { return key == null ? null : items.get(key); }
+        @Override public List<T> findAll() { return List.copyOf(items.values()); }
+        @Override public void save(T item) { items.put(keyOf(item), item); }
+        @Override public void saveAll(Collection<? extends T> all) { for (T item : all) save(item); }
+        @Override public boolean delete(K key) { return key != null && items.remove(key) != null; }
+        @Override public int count() { return items.size(); }
+    }
+
+    static final class Clients extends MapRepository<String, Client> implements ClientRepository {
+        Clients() { super(Client::getUsername); }
+    }
+
+    static final class Rooms extends MapRepository<String, Room> implements RoomRepository {
+        Rooms() { super(Room::getRoomId); }
+    }
+
+    static final class Movies extends MapRepository<String, Movie> implements MovieRepository {
+        Movies() { super(Movie::getId); }
+    }
+
+    static final class Showtimes extends MapRepository<Long, ShowtimeRow> implements ShowtimeRepository {
+        Showtimes() { super(ShowtimeRow::id); }
+
+        @Override
+        public List<ShowtimeRow> findByMovie(String movieId) {
+            List<ShowtimeRow> rows = new ArrayList<>();
+            for (ShowtimeRow row : items.values()) {
+                if (row.movieId().equals(movieId)) rows.add(row);
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package persistence;
+
+import Helper.CatalogService;
+import model.Client;
+import model.Movie;
+import model.Room;
+import model.Showtime;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of the whole model: clients, rooms, movies and showtimes with their seat state.
+ * <p>
+ * A snapshot records the journal offset it was taken at; recovery loads the newest readable
+ * snapshot and replays only the journal from that offset. Snapshots are written from the live
+ * model without stopping it: bookings made while one is written are in the journal after the
+ * recorded offset and are replayed on top, which is safe because replay is idempotent.
+ * <p>
+ * Files are named {@code model-<generation>.snapshot}, written to a temporary file, forced to
+ * disk and then atomically renamed, so a crash never leaves a half-written snapshot behind.
+ * The last four bytes are a CRC32C of everything before them. Snapshots are read through a
+ * read-only memory mapping, so a file must stay below 2 GB.
+ */
+public final class ModelSnapshot {
+
+    private ModelSnapshot() { /* static helper, no instantiation */ }
+
+    private static final int MAGIC = 0x434E5350; // "CNSP"
+    private static final int FORMAT_VERSION = 1;
+    private static final String PREFIX = "model-";
+    private static final String SUFFIX = ".snapshot";
+    /** Marks another showtime entry; showtimes are streamed from the live index, so their count is not known up front. */
+    private static final byte MORE = 1;
+    private static final byte END = 0;
+
+    /** Statistics of one written snapshot. */
+    public record Info(Path file, long journalOffset, int clients, int movies, long showtimes, long bytes) { }
+
+    /**
+     * Lists the snapshots in a directory.
+     * @param dir data directory
+     * @return snapshot files, newest first
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<Path> list(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return List.of();
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> generationOf(file) >= 0)
+                    .sorted(Comparator.comparingLong(ModelSnapshot::generationOf).reversed())
+                    .toList();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the live model as the next generation in a directory.
+     * @param dir data directory
+     * @param journalOffset journal offset read before the model is scanned
+     * @return what was written
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static Info write(Path dir, long journalOffset) throws IOException {
+        Files.createDirectories(dir);
+        List<Path> existing = list(dir);
+        long generation = existing.isEmpty() ? 1 : generationOf(existing.get(0)) + 1;
+        Path file = dir.resolve(String.format("%s%016x%s", PREFIX, generation, SUFFIX));
+        Path temp = dir.resolve(file.getFileName() + ".tmp");
+
+        List<Client> clients = Client.getRegisteredClientsSnapshot();
+        CatalogService.Snapshot catalog = CatalogService.getSnapshot();
+        long showtimes = 0;
+        CRC32C crc = new CRC32C();
+        try (FileOutputStream stream = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(stream, crc), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(journalOffset);
+            out.writeLong(System.currentTimeMillis());
+
+            out.writeInt(clients.size());
+            for (Client client : clients) {
+                writeString(out, client.getUsername());
+                writeString(out, client.getPassword());
+                writeString(out, client.getEmail());
+            }
+            out.writeInt(catalog.getRooms().size());
+            for (Room room : catalog.getRooms()) {
+                writeString(out, room.getRoomId());
+                writeString(out, room.getRoomName());
+                out.writeInt(room.getCapacity());
+            }
+            out.writeInt(catalog.getMovies().size());
+            for (Movie movie : catalog.getMovies()) {
+                writeString(out, movie.getId());
+                writeString(out, movie.getTitle());
+                writeString(out, movie.getGenre());
+                out.writeInt(movie.getDurationMinutes());
+                writeString(out, movie.getRating());
+            }
+            for (Showtime showtime : Showtime.getAllShowtimes()) {
+                // Version before words: a booking caught in between is replayed from the journal.
+                int version = showtime.getSeatVersion();
+                int available = showtime.getAvailableSeats();
+                long[] words = showtime.getSeatWords();
+                out.writeByte(MORE);
+                out.writeLong(showtime.getId());
+                writeString(out, showtime.getMovie().getId());
+                out.writeLong(showtime.getDate().toEpochDay());
+                writeString(out, showtime.getTime());
+                writeString(out, showtime.getRoom());
+                out.writeInt(showtime.getTotalCapacity());
+                out.writeInt(version);
+                out.writeInt(available);
+                out.writeInt(words == null ? -1 : words.length);
+                if (words != null) for (long word : words) out.writeLong(word);
+                showtimes++;
+            }
+            out.writeByte(END);
+            out.flush();
+            // The checksum covers everything above; write it past the checked stream.
+            stream.write(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+            stream.getChannel().force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return new Info(file, journalOffset, clients.size(), catalog.getMovies().size(), showtimes, Files.size(file));
+    }
+
+    /**
+     * Loads a snapshot through a read-only memory mapping.
+     * @param file snapshot file
+     * @return the recovered model, not yet published
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    static RecoveredModel read(Path file) throws IOException {
+        MappedByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Snapshot too large to map: " + file);
+            if (size < 4) throw new IOException("Snapshot truncated: " + file);
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        int bodyLength = in.limit() - 4;
+        CRC32C crc = new CRC32C();
+        crc.update(in.slice(0, bodyLength));
+        if ((int) crc.getValue() != in.getInt(bodyLength)) throw new IOException("Snapshot checksum mismatch: " + file);
+        in.limit(bodyLength);
+        try {
+            if (in.getInt() != MAGIC) throw new IOException("Not a snapshot: " + file);
+            int version = in.getInt();
+            if (version != FORMAT_VERSION) throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            RecoveredModel model = new RecoveredModel(in.getLong());
+            in.getLong(); // creation time
+
+            for (int i = in.getInt(); i > 0; i--) {
+                model.addClient(Client.createDetached(readString(in), readString(in), readString(in)));
+            }
+            for (int i = in.getInt(); i > 0; i--) {
+                model.addRoom(new Room(readString(in), readString(in), in.getInt()));
+            }
+            for (int i = in.getInt(); i > 0; i--) {
+                model.addMovie(Movie.restore(readString(in), readString(in), readString(in), in.getInt(), readString(in)));
+            }
+            while (in.get() == MORE) {
+                long id = in.getLong();
+                String movieId = readString(in);
+                LocalDate date = LocalDate.ofEpochDay(in.getLong());
+                String time = readString(in);
+                String room = readString(in);
+                int capacity = in.getInt();
+                int seatVersion = in.getInt();
+                int available = in.getInt();
+                long[] words = new long[Math.max(0, in.getInt())];
+                for (int w = 0; w < words.length; w++) words[w] = in.getLong();
+                Movie movie = model.findMovie(movieId);
+                if (movie == null) continue; // movie was being removed while the snapshot was taken
+                Showtime showtime = Showtime.restore(id, movie, date, time, room, capacity, seatVersion, available);
+                if (words.length > 0) showtime.getSeatMap().loadWords(words);
+                model.addShowtime(showtime);
+            }
+            return model;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt snapshot: " + file, e);
+        }
+    }
+
+    /**
+     * Deletes all but the newest snapshots.
+     * @param dir data directory
+     * @param keep number of snapshots to keep (&gt;= 1)
+     * @throws IOException if a file cannot be deleted
+     */
+    public static void prune(Path dir, int keep) throws IOException {
+        List<Path> snapshots = list(dir);
+        for (int i = Math.max(1, keep); i < snapshots.size(); i++) Files.deleteIfExists(snapshots.get(i));
+    }
+
+    /** @return generation encoded in a snapshot file name, or -1 if it is not a snapshot */
+    private static long generationOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) return -1;
+        try {
+            return Long.parseUnsignedLong(name, PREFIX.length(), name.length() - SUFFIX.length(), 16);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,9 @@
+package persistence;
+
+import model.Movie;
+
+/**
+ * Movies keyed by movie id.
+ */
+public interface MovieRepository extends Repository<String, Movie> {
+}
@@ -0,0 +1,417 @@
+package persistence;
+
+import Helper.CatalogService;
+import model.Client;
+import model.ModelEvents;
+import model.Movie;
+import model.Room;
+import model.Showtime;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Starts and stops durable storage of the model.
+ * <p>
+ * Every change is appended to the {@link BookingJournal}, and a background thread writes a
+ * {@link ModelSnapshot} periodically. After a restart, {@link #recover()} loads the newest
+ * snapshot and replays only the journal written after it.
+ * <p>
+ * Independently, the model can be kept in a {@link Store} picked with {@link Stores}: at
+ * startup only the entries that differ from the loaded data are saved and the ones it no
+ * longer has are deleted, then the store is updated in the background by a
+ * {@link WriteBehindListener}. A site with a store but no journal or snapshots is loaded from
+ * the store, and may then lose up to the store's flush interval of changes in a crash.
+ * <p>
+ * Configured with system properties (see {@link Stores} for the store):
+ * <ul>
+ *   <li>{@code cinema.data.dir}: directory for the journal and snapshots; persistence is off when unset</li>
+ *   <li>{@code cinema.journal.fsync}: {@code every-batch} (default), {@code interval} or {@code none}</li>
+ *   <li>{@code cinema.journal.fsync.interval.ms}: interval for the {@code interval} policy (default 50)</li>
+ *   <li>{@code cinema.snapshot.interval.s}: seconds between snapshots (default 300)</li>
+ *   <li>{@code cinema.store.flush.ms}: longest time a change waits before it is written to the store (default 1000)</li>
+ *   <li>{@code cinema.store.batch}: pending store changes that trigger a write (default 500)</li>
+ *   <li>{@code cinema.store.queue}: pending store changes before further changes wait (default 10000)</li>
+ * </ul>
+ */
+public final class Persistence {
+
+    private Persistence() { /* static helper, no instantiation */ }
+
+    /** Snapshots kept on disk; older ones are deleted after a new one is written. */
+    private static final int SNAPSHOTS_KEPT = 2;
+    /** Longest wait for in-flight movie or showtime additions before a snapshot is skipped. */
+    private static final long PENDING_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static volatile BookingJournal journal;
+    private static volatile JournalingListener listener;
+    private static ScheduledExecutorService snapshots;
+    /** Serializes snapshot writes; separate from the class lock so shutdown is not held up. */
+    private static final Object SNAPSHOT_LOCK = new Object();
+    /** Journal offset of the last snapshot written by this process, or -1. */
+    private static long lastSnapshotOffset = -1;
+    private static volatile Store store;
+    private static WriteBehindListener storeListener;
+    /** Whether the model was loaded from the store, which then needs no initial sync. */
+    private static boolean loadedFromStore;
+    private static boolean shutdownHookAdded;
+    /** Showtime rows saved per call during the initial sync. */
+    private static final int SYNC_CHUNK = 10_000;
+
+    /**
+     * @return configured data directory, or {@code null} if persistence is off
+     */
+    public static Path getDataDirectory() {
+        String dir = System.getProperty("cinema.data.dir");
+        return dir == null || dir.isBlank() ? null : Path.of(dir);
+    }
+
+    /**
+     * @return {@code true} if a data directory or a store is configured
+     */
+    public static boolean isConfigured() {
+        return getDataDirectory() != null || Stores.getConfiguredName() != null;
+    }
+
+    /**
+     * Restores the model saved in the data directory: loads the newest readable snapshot
+     * (falling back to older ones) and replays the journal written after it. Without journal
+     * and snapshots, loads the configured store instead. Must run before {@link #start()}.
+     * <p>
+     * A journal is never replayed without a snapshot: its records refer to movies and
+     * showtimes by the ids of the process that wrote them, and the first snapshot is what
+     * holds those ids.
+     * @return {@code true} if saved data was found and published; {@code false} if persistence
+     *         is off or nothing was saved yet, in which case the sample data should be loaded
+     * @throws IOException if the journal or the store cannot be read, or the journal has no
+     *         readable snapshot to replay onto
+     */
+    public static synchronized boolean recover() throws IOException {
+        Path dir = getDataDirectory();
+        if (dir == null) return recoverFromStore();
+        long begin = System.nanoTime();
+        RecoveredModel model = null;
+        for (Path snapshot : ModelSnapshot.list(dir)) {
+            try {
+                model = ModelSnapshot.read(snapshot);
+                System.out.printf("Loaded snapshot %s (%d clients, %d movies, %d showtimes)%n", snapshot.getFileName(),
+                        model.getClientCount(), model.getMovieCount(), model.getShowtimeCount());
+                break;
+            } catch (IOException e) {
+                System.out.println("Skipping unreadable snapshot: " + e.getMessage());
+            }
+        }
+        Path journalFile = dir.resolve(BookingJournal.FILE_NAME);
+        boolean hasJournal = Files.exists(journalFile) && Files.size(journalFile) > 0;
+        if (model == null && !hasJournal) return recoverFromStore();
+        if (model == null) {
+            throw new IOException("Journal " + journalFile + " has no readable snapshot to replay onto; "
+                    + "restore a snapshot into " + dir + " or move the journal away to start from the sample data");
+        }
+
+        long from = model.getJournalOffset();
+        long end = hasJournal ? BookingJournal.read(journalFile, from, model::apply) : from;
+        if (hasJournal && from > Files.size(journalFile)) {
+            System.out.printf("Journal is shorter than the snapshot offset %d; nothing replayed%n", from);
+        }
+        int rejected = model.publish();
+        System.out.printf("Recovered %d clients, %d movies, %d showtimes; replayed %d journal records (%d bytes, %d unresolved) in %d ms%n",
+                model.getClientCount(), model.getMovieCount(), model.getShowtimeCount() - rejected,
+                model.getAppliedCount(), Math.max(0, end - from), model.getUnresolvedCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+        return true;
+    }
+
+    private static boolean recoverFromStore() throws IOException {
+        Store current = openStore();
+        if (current == null) return false;
+        long begin = System.nanoTime();
+        RecoveredModel model = RecoveredModel.fromStore(current);
+        if (model.getClientCount() == 0 && model.getMovieCount() == 0) return false;
+        int rejected = model.publish();
+        loadedFromStore = true;
+        System.out.printf("Loaded %d clients, %d movies, %d showtimes from the %s store (%d unresolved) in %d ms%n",
+                model.getClientCount(), model.getMovieCount(), model.getShowtimeCount() - rejected, current.getName(),
+                model.getUnresolvedCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+        return true;
+    }
+
+    private static Store openStore() throws IOException {
+        if (store == null) store = Stores.open();
+        return store;
+    }
+
+    /**
+     * Starts the journal and the store, whichever are configured.
+     * @throws IOException if either cannot be started
+     */
+    public static synchronized void start() throws IOException {
+        startJournal();
+        startStore();
+    }
+
+    /**
+     * Opens the journal in the configured data directory, starts recording every model
+     * change, writes a first snapshot and schedules the periodic ones. Does nothing if
+     * persistence is off or already started.
+     * <p>
+     * The first snapshot holds the data loaded at startup, which the journal's records refer
+     * to, so it waits for in-flight additions however long they take. If it cannot be
+     * written, recording stops and the journal is closed again: a journal without a snapshot
+     * could not be recovered.
+     * @return the open journal, or {@code null} if persistence is off
+     * @throws IOException if the journal cannot be opened or the first snapshot written
+     */
+    public static synchronized BookingJournal startJournal() throws IOException {
+        if (journal != null) return journal;
+        Path dir = getDataDirectory();
+        if (dir == null) return null;
+        FsyncPolicy policy = FsyncPolicy.parse(System.getProperty("cinema.journal.fsync", "every-batch"));
+        Duration interval = Duration.ofMillis(Long.getLong("cinema.journal.fsync.interval.ms", 50));
+        journal = BookingJournal.open(dir.resolve(BookingJournal.FILE_NAME), policy, interval);
+        listener = new JournalingListener(journal);
+        ModelEvents.addListener(listener);
+        lastSnapshotOffset = -1;
+        try {
+            // Covers the data loaded at startup, which is not in the journal.
+            snapshot(Long.MAX_VALUE);
+        } catch (IOException | RuntimeException e) {
+            ModelEvents.removeListener(listener);
+            try {
+                journal.close();
+            } catch (IOException closeError) {
+                e.addSuppressed(closeError);
+            }
+            journal = null;
+            listener = null;
+            throw e;
+        }
+        addShutdownHook();
+        System.out.printf("Journaling to %s (fsync %s)%n", journal.getFile(), policy);
+        long period = Long.getLong("cinema.snapshot.interval.s", 300);
+        snapshots = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "model-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshots.scheduleWithFixedDelay(Persistence::scheduledSnapshot, period, period, TimeUnit.SECONDS);
+        return journal;
+    }
+
+    /**
+     * Opens the configured store, brings it in line with the live model unless the model was
+     * loaded from it, and starts writing every change to it in the background. Does nothing if no store is
+     * configured or it is already started.
+     * @return the open store, or {@code null} if none is configured
+     * @throws IOException if the store cannot be opened or synced
+     */
+    public static synchronized Store startStore() throws IOException {
+        if (storeListener != null) return store;
+        Store current = openStore();
+        if (current == null) return null;
+        // Listen first, so a change made during the sync is not missed; start writing only after
+        // the sync, so a row read by the sync never overwrites a newer one.
+        storeListener = new WriteBehindListener(current, Integer.getInteger("cinema.store.batch", 500),
+                Integer.getInteger("cinema.store.queue", 10_000), Duration.ofMillis(Long.getLong("cinema.store.flush.ms", 1000)));
+        ModelEvents.addListener(storeListener);
+        addShutdownHook();
+        try {
+            if (!loadedFromStore) sync(current);
+        } finally {
+            storeListener.start();
+        }
+        System.out.printf("Writing changes to the %s store%n", current.getName());
+        return current;
+    }
+
+    /** Brings a store in line with the live model. */
+    private static void sync(Store current) throws IOException {
+        long begin = System.nanoTime();
+        CatalogService.Snapshot catalog = CatalogService.getSnapshot();
+        int[] changes = sync(current, Client.getRegisteredClientsSnapshot(), catalog.getRooms(), catalog.getMovies(),
+                Showtime.getAllShowtimes());
+        System.out.printf("Synced the %s store (%d saved, %d deleted) in %d ms%n", current.getName(), changes[0], changes[1],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+    }
+
+    /**
+     * Makes a store hold exactly the given model: entries that differ are saved, and entries
+     * the model no longer has are deleted. A store that missed the last changes before a
+     * crash, or that belonged to another backend, is thereby corrected without rewriting the
+     * entries it already has right.
+     * @return number of entries saved and deleted
+     * @throws IOException if the store cannot be flushed
+     */
+    static int[] sync(Store current, Collection<Client> clients, Collection<Room> rooms, Collection<Movie> movies,
+                      Iterable<Showtime> showtimes) throws IOException {
+        int[] changes = new int[2];
+        syncTable(current.clients(), clients, Client::getUsername, (a, b) -> Objects.equals(a.getPassword(), b.getPassword())
+                && Objects.equals(a.getEmail(), b.getEmail()), changes);
+        syncTable(current.rooms(), rooms, Room::getRoomId, (a, b) -> Objects.equals(a.getRoomName(), b.getRoomName())
+                && a.getCapacity() == b.getCapacity(), changes);
+        // Showtimes before movies, so no stored showtime is left pointing at a deleted movie.
+        Map<Long, ShowtimeRow> storedRows = new HashMap<>();
+        for (ShowtimeRow row : current.showtimes().findAll()) storedRows.put(row.id(), row);
+        List<ShowtimeRow> rows = new ArrayList<>(SYNC_CHUNK);
+        for (Showtime showtime : showtimes) {
+            ShowtimeRow row = ShowtimeRow.of(showtime);
+            ShowtimeRow stored = storedRows.remove(row.id());
+            if (stored != null && stored.sameAs(row)) continue;
+            rows.add(row);
+            if (rows.size() == SYNC_CHUNK) {
+                current.showtimes().saveAll(rows);
+                changes[0] += rows.size();
+                rows.clear();
+            }
+        }
+        current.showtimes().saveAll(rows);
+        changes[0] += rows.size();
+        for (Long id : storedRows.keySet()) if (current.showtimes().delete(id)) changes[1]++;
+        syncTable(current.movies(), movies, Movie::getId, (a, b) -> Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getGenre(), b.getGenre()) && a.getDurationMinutes() == b.getDurationMinutes()
+                && Objects.equals(a.getRating(), b.getRating()), changes);
+        current.flush();
+        return changes;
+    }
+
+    /** Saves the items that are missing or differ, deletes stored ones that are not in {@code live}. */
+    private static <K, T> void syncTable(Repository<K, T> table, Collection<T> live, Function<T, K> key,
+                                         BiPredicate<T, T> same, int[] changes) {
+        Map<K, T> stored = new HashMap<>();
+        for (T item : table.findAll()) stored.put(key.apply(item), item);
+        List<T> changed = new ArrayList<>();
+        for (T item : live) {
+            T old = stored.remove(key.apply(item));
+            if (old == null || !same.test(old, item)) changed.add(item);
+        }
+        table.saveAll(changed);
+        changes[0] += changed.size();
+        for (K k : stored.keySet()) if (table.delete(k)) changes[1]++;
+    }
+
+    private static void addShutdownHook() {
+        if (shutdownHookAdded) return;
+        Runtime.getRuntime().addShutdownHook(new Thread(Persistence::shutdown, "persistence-shutdown"));
+        shutdownHookAdded = true;
+    }
+
+    /** @return the open journal, or {@code null} */
+    public static BookingJournal getJournal() { return journal; }
+
+    /**
+     * Waits until the changes made on the calling thread are in the journal, durable per its
+     * fsync policy. Call it before confirming a booking. Returns at once if journaling is off.
+     * @throws IOException if the journal failed; the change is then not durable
+     */
+    public static void awaitDurable() throws IOException {
+        JournalingListener current = listener;
+        if (current != null) current.awaitDurable();
+    }
+
+    /** @return why the journal stopped accepting changes, or {@code null} if it works or is off */
+    public static Throwable getJournalFailure() {
+        JournalingListener current = listener;
+        return current == null ? null : current.getFailure();
+    }
+
+    /** @return the open store, or {@code null} */
+    public static Store getStore() { return store; }
+
+    /**
+     * Writes a snapshot of the live model now, unless nothing was journaled since the last one.
+     * Booking continues while it is written.
+     * <p>
+     * After the journal has failed its position no longer moves, but snapshots are still
+     * written on every call: they are then the only copy of the changes the journal missed.
+     * @return what was written, or {@code null} if persistence is not started, nothing changed
+     *         or additions kept running for too long
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static ModelSnapshot.Info snapshot() throws IOException {
+        return snapshot(PENDING_WAIT_NANOS);
+    }
+
+    /**
+     * @param pendingWaitNanos longest wait for in-flight additions; {@code Long.MAX_VALUE} for no limit
+     */
+    private static ModelSnapshot.Info snapshot(long pendingWaitNanos) throws IOException {
+        BookingJournal current = getJournal();
+        if (current == null) return null;
+        synchronized (SNAPSHOT_LOCK) {
+            long offset = current.getPosition();
+            Throwable failed = getJournalFailure();
+            if (offset == lastSnapshotOffset && failed == null) return null;
+            if (failed != null) System.out.println("Journal failed (" + failed + "); snapshotting the changes it missed");
+            // A movie or showtime reported before this offset must be visible when it is scanned.
+            if (!ModelEvents.awaitPendingChanges(pendingWaitNanos)) {
+                System.out.println("Snapshot postponed: model additions still in progress");
+                return null;
+            }
+            long begin = System.nanoTime();
+            ModelSnapshot.Info info = ModelSnapshot.write(current.getFile().getParent(), offset);
+            ModelSnapshot.prune(current.getFile().getParent(), SNAPSHOTS_KEPT);
+            lastSnapshotOffset = offset;
+            System.out.printf("Wrote snapshot %s (%d showtimes, %d KB) in %d ms%n", info.file().getFileName(),
+                    info.showtimes(), info.bytes() / 1024, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+            return info;
+        }
+    }
+
+    private static void scheduledSnapshot() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Could not write snapshot: " + e);
+        }
+    }
+
+    /**
+     * Stops snapshots and recording, then closes the journal and the store after writing
+     * everything queued.
+     */
+    public static synchronized void shutdown() {
+        closeStore();
+        if (journal == null) return;
+        snapshots.shutdown();
+        ModelEvents.removeListener(listener);
+        try {
+            snapshots.awaitTermination(10, TimeUnit.SECONDS);
+            journal.close();
+        } catch (IOException e) {
+            System.out.println("Could not close journal: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal = null;
+        listener = null;
+        snapshots = null;
+    }
+
+    private static void closeStore() {
+        if (store == null) return;
+        if (storeListener != null) {
+            ModelEvents.removeListener(storeListener);
+            storeListener.close();
+        }
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.out.println("Could not close store: " + e);
+        }
+        store = null;
+        storeListener = null;
+    }
+}
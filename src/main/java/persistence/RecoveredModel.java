@@ -0,0 +1,168 @@
+package persistence;
+
+import Helper.CatalogService;
+import Helper.SampleDataHelper;
+import model.Client;
+import model.ModelEvents;
+import model.Movie;
+import model.Room;
+import model.Showtime;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model data being recovered after a restart.
+ * <p>
+ * Built from a snapshot (or the contents of a store), updated by the journal records written after
+ * it, then published in one step. Nothing here is registered or visible until
+ * {@link #publish()}, so replaying millions of records does not touch the live indexes.
+ * <p>
+ * Seat records are journaled after the change, so two bookings of one showtime can reach
+ * the journal in either order. They are kept per showtime and applied in seat version order
+ * by {@link #applySeatChanges()}, which {@code publish()} runs first.
+ */
+final class RecoveredModel {
+
+    private final List<Room> rooms = new ArrayList<>();
+    private final Map<String, Client> clients = new LinkedHashMap<>();
+    private final Map<String, Movie> movies = new LinkedHashMap<>();
+    private final Map<Long, Showtime> showtimes = new LinkedHashMap<>();
+    /** Seat records not applied yet, by showtime id. */
+    private final Map<Long, List<JournalRecord.SeatsChanged>> seatChanges = new HashMap<>();
+    /** Journal offset the snapshot was taken at; records from here on are replayed. */
+    private final long journalOffset;
+    private long applied;
+    private long unresolved;
+
+    /**
+     * @param journalOffset journal offset covered by the data added to this model
+     */
+    RecoveredModel(long journalOffset) {
+        this.journalOffset = journalOffset;
+    }
+
+    /**
+     * Starts from the contents of a store, for a site without journal or snapshots.
+     * @param store store to read
+     * @return model holding the stored data
+     */
+    static RecoveredModel fromStore(Store store) {
+        RecoveredModel model = new RecoveredModel(0);
+        for (Client client : store.clients().findAll()) model.addClient(client);
+        model.rooms.addAll(store.rooms().findAll());
+        for (Movie movie : store.movies().findAll()) model.addMovie(movie);
+        for (ShowtimeRow row : store.showtimes().findAll()) {
+            Movie movie = model.findMovie(row.movieId());
+            if (movie != null) model.addShowtime(row.toShowtime(movie));
+            else model.unresolved++;
+        }
+        return model;
+    }
+
+    void addClient(Client client) { clients.putIfAbsent(client.getUsername(), client); }
+    void addRoom(Room room) { rooms.add(room); }
+    void addMovie(Movie movie) { movies.putIfAbsent(movie.getId(), movie); }
+    void addShowtime(Showtime showtime) { showtimes.put(showtime.getId(), showtime); }
+    Movie findMovie(String id) { return movies.get(id); }
+    Showtime findShowtime(long id) { return showtimes.get(id); }
+
+    long getJournalOffset() { return journalOffset; }
+    int getClientCount() { return clients.size(); }
+    int getMovieCount() { return movies.size(); }
+    int getShowtimeCount() { return showtimes.size(); }
+    long getAppliedCount() { return applied; }
+    /** @return records skipped because they referred to a movie or showtime that no longer exists */
+    long getUnresolvedCount() { return unresolved; }
+
+    /**
+     * Applies one journal record. Records already reflected by the snapshot have no effect.
+     * @param record record to apply
+     */
+    void apply(JournalRecord record) {
+        applied++;
+        switch (record) {
+            case JournalRecord.ClientRegistered r -> addClient(Client.createDetached(r.username(), r.passwordHash(), r.email()));
+            case JournalRecord.ClientUpdated r -> {
+                Client client = clients.get(r.username());
+                if (client != null) client.setEmail(r.email());
+                else unresolved++;
+            }
+            case JournalRecord.MovieAdded r -> addMovie(Movie.restore(r.id(), r.title(), r.genre(), r.durationMinutes(), r.rating()));
+            case JournalRecord.MovieRemoved r -> {
+                movies.remove(r.id());
+                showtimes.values().removeIf(showtime -> {
+                    boolean removed = showtime.getMovie().getId().equals(r.id());
+                    if (removed) seatChanges.remove(showtime.getId());
+                    return removed;
+                });
+            }
+            case JournalRecord.ShowtimeSaved r -> saveShowtime(r);
+            case JournalRecord.ShowtimeRemoved r -> {
+                showtimes.remove(r.id());
+                seatChanges.remove(r.id());
+            }
+            case JournalRecord.SeatsChanged r -> {
+                if (showtimes.containsKey(r.showtimeId())) seatChanges.computeIfAbsent(r.showtimeId(), id -> new ArrayList<>()).add(r);
+                else unresolved++;
+            }
+        }
+    }
+
+    private void saveShowtime(JournalRecord.ShowtimeSaved r) {
+        Movie movie = movies.get(r.movieId());
+        if (movie == null) {
+            unresolved++;
+            return;
+        }
+        LocalDate date = LocalDate.ofEpochDay(r.epochDay());
+        Showtime existing = showtimes.get(r.id());
+        if (existing == null) {
+            addShowtime(Showtime.restore(r.id(), movie, date, r.time(), r.room(), r.capacity(), r.seatVersion(), r.available()));
+            return;
+        }
+        if (r.update()) {
+            existing.setMovie(movie);
+            existing.setDate(date);
+            existing.setTime(r.time());
+            existing.setRoom(r.room());
+        }
+        // The seat state of a known showtime only comes from its seat records, in version order.
+    }
+
+    /**
+     * Applies the buffered seat records, each showtime's in seat version order.
+     * Runs again harmlessly: records already applied are gone.
+     */
+    void applySeatChanges() {
+        for (Map.Entry<Long, List<JournalRecord.SeatsChanged>> entry : seatChanges.entrySet()) {
+            Showtime showtime = showtimes.get(entry.getKey());
+            if (showtime == null) continue;
+            List<JournalRecord.SeatsChanged> records = entry.getValue();
+            records.sort(Comparator.comparingInt(JournalRecord.SeatsChanged::version));
+            for (JournalRecord.SeatsChanged r : records) showtime.applySeatChange(r.version(), r.available(), r.seats(), r.delta());
+        }
+        seatChanges.clear();
+    }
+
+    /**
+     * Registers the clients and replaces the catalog and schedule with the recovered data,
+     * without reporting any of it to the model listeners.
+     * @return number of showtimes that could not be scheduled
+     */
+    int publish() {
+        applySeatChanges();
+        int[] rejected = new int[1];
+        ModelEvents.runSilently(() -> {
+            for (Client client : clients.values()) Client.registerClient(client);
+            rejected[0] = CatalogService.restore(new SampleDataHelper.Data(List.copyOf(rooms), List.copyOf(movies.values()),
+                    List.copyOf(clients.values()), List.copyOf(showtimes.values())));
+        });
+        return rejected[0];
+    }
+}
@@ -0,0 +1,45 @@
+package persistence;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Storage of one kind of entity, keyed by its natural id.
+ * <p>
+ * Saving an entity inserts it or replaces the stored one with the same key. Implementations
+ * are thread-safe; whether a save is durable when it returns depends on the {@link Store}.
+ * @param <K> key type
+ * @param <T> entity type
+ */
+public interface Repository<K, T> {
+
+    /**
+     * @param key key to look up
+     * @return stored entity or {@code null}
+     */
+    T find(K key);
+
+    /** @return every stored entity */
+    List<T> findAll();
+
+    /**
+     * Inserts or replaces an entity.
+     * @param item entity to store
+     */
+    void save(T item);
+
+    /**
+     * Inserts or replaces several entities; backends write them as one batch.
+     * @param items entities to store
+     */
+    void saveAll(Collection<? extends T> items);
+
+    /**
+     * @param key key of the entity to delete
+     * @return {@code true} if an entity was deleted
+     */
+    boolean delete(K key);
+
+    /** @return number of stored entities */
+    int count();
+}
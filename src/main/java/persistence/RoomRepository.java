@@ -0,0 +1,9 @@
+package persistence;
+
+import model.Room;
+
+/**
+ * Rooms keyed by room id.
+ */
+public interface RoomRepository extends Repository<String, Room> {
+}
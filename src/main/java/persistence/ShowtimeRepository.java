@@ -0,0 +1,16 @@
+package persistence;
+
+import java.util.List;
+
+/**
+ * Showtimes keyed by showtime id, stored as {@link ShowtimeRow}s so they can be loaded
+ * before their movies are resolved.
+ */
+public interface ShowtimeRepository extends Repository<Long, ShowtimeRow> {
+
+    /**
+     * @param movieId movie id
+     * @return stored showtimes of that movie
+     */
+    List<ShowtimeRow> findByMovie(String movieId);
+}
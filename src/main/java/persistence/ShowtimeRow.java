@@ -0,0 +1,51 @@
+package persistence;
+
+import model.Movie;
+import model.Showtime;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Stored form of a {@link Showtime}: its schedule, seat counters and seat map, with the movie
+ * referenced by id.
+ * @param seatWords seat map words (see {@link Showtime#getSeatWords()}), or {@code null}
+ */
+public record ShowtimeRow(long id, String movieId, LocalDate date, String time, String room,
+                          int capacity, int seatVersion, int available, long[] seatWords) {
+
+    /**
+     * @param showtime showtime to store
+     * @return its current state
+     */
+    public static ShowtimeRow of(Showtime showtime) {
+        // Version before words, like snapshots: a newer seat map is harmless, a newer count is not.
+        int version = showtime.getSeatVersion();
+        int available = showtime.getAvailableSeats();
+        return new ShowtimeRow(showtime.getId(), showtime.getMovie().getId(), showtime.getDate(), showtime.getTime(),
+                showtime.getRoom(), showtime.getTotalCapacity(), version, available, showtime.getSeatWords());
+    }
+
+    /**
+     * Compares every field, including the seat map contents (records compare arrays by identity).
+     * @param other row to compare with
+     * @return {@code true} if both rows store the same state
+     */
+    public boolean sameAs(ShowtimeRow other) {
+        return id == other.id && capacity == other.capacity && seatVersion == other.seatVersion && available == other.available
+                && Objects.equals(movieId, other.movieId) && Objects.equals(date, other.date) && Objects.equals(time, other.time)
+                && Objects.equals(room, other.room) && Arrays.equals(seatWords, other.seatWords);
+    }
+
+    /**
+     * Rebuilds the showtime; it is not registered.
+     * @param movie the movie with id {@link #movieId()}
+     * @return the restored showtime
+     */
+    public Showtime toShowtime(Movie movie) {
+        Showtime showtime = Showtime.restore(id, movie, date, time, room, capacity, seatVersion, available);
+        if (seatWords != null && seatWords.length > 0) showtime.getSeatMap().loadWords(seatWords);
+        return showtime;
+    }
+}
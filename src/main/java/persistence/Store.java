@@ -0,0 +1,37 @@
+package persistence;
+
+import java.io.IOException;
+
+/**
+ * A storage backend: one repository per entity type.
+ * <p>
+ * Backends are picked per site with {@link Stores#open()}: {@link MemoryStore} keeps
+ * everything in maps, {@link FileStore} adds an append-only log on local disk and
+ * {@link JdbcStore} uses an embedded SQL database.
+ */
+public interface Store extends AutoCloseable {
+
+    /** @return backend name as used in {@code cinema.store} */
+    String getName();
+
+    ClientRepository clients();
+
+    RoomRepository rooms();
+
+    MovieRepository movies();
+
+    ShowtimeRepository showtimes();
+
+    /**
+     * Waits until every save so far is durable.
+     * @throws IOException if a write failed
+     */
+    void flush() throws IOException;
+
+    /**
+     * Flushes and releases the backend.
+     * @throws IOException if the final write fails
+     */
+    @Override
+    void close() throws IOException;
+}
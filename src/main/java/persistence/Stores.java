@@ -0,0 +1,69 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Opens the storage backend configured for the site.
+ * <p>
+ * Configured with system properties:
+ * <ul>
+ *   <li>{@code cinema.store}: {@code memory}, {@code file} or {@code jdbc}; no store when unset</li>
+ *   <li>{@code cinema.store.dir}: directory of the file store and default database
+ *       (default: {@code cinema.data.dir}, else {@code data})</li>
+ *   <li>{@code cinema.store.url}: JDBC URL (default: an H2 database {@code cinema} in the store directory)</li>
+ *   <li>{@code cinema.store.fsync}: fsync policy of the file store, as for the journal (default {@code every-batch})</li>
+ * </ul>
+ */
+public final class Stores {
+
+    private Stores() { /* static helper, no instantiation */ }
+
+    /** System property naming the backend. */
+    public static final String PROPERTY = "cinema.store";
+
+    /**
+     * @return configured backend name, or {@code null} if no store is configured
+     */
+    public static String getConfiguredName() {
+        String name = System.getProperty(PROPERTY);
+        return name == null || name.isBlank() ? null : name.trim().toLowerCase();
+    }
+
+    /**
+     * Opens the configured backend.
+     * @return the open store, or {@code null} if none is configured
+     * @throws IOException if the store cannot be opened
+     * @throws IllegalArgumentException if the backend name is unknown
+     */
+    public static Store open() throws IOException {
+        String name = getConfiguredName();
+        return name == null ? null : open(name);
+    }
+
+    /**
+     * Opens a backend by name with the configured location.
+     * @param name {@code memory}, {@code file} or {@code jdbc}
+     * @return the open store
+     * @throws IOException if the store cannot be opened
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static Store open(String name) throws IOException {
+        return switch (name) {
+            case "memory" -> new MemoryStore();
+            case "file" -> FileStore.open(getDirectory(),
+                    FsyncPolicy.parse(System.getProperty("cinema.store.fsync", "every-batch")));
+            case "jdbc" -> JdbcStore.open(System.getProperty("cinema.store.url",
+                    "jdbc:h2:file:" + getDirectory().toAbsolutePath().resolve("cinema")));
+            default -> throw new IllegalArgumentException("Unknown store: " + name);
+        };
+    }
+
+    /** @return directory for file-based backends */
+    public static Path getDirectory() {
+        String dir = System.getProperty("cinema.store.dir");
+        if (dir != null && !dir.isBlank()) return Path.of(dir);
+        Path data = Persistence.getDataDirectory();
+        return data != null ? data : Path.of("data");
+    }
+}
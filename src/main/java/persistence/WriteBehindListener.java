@@ -0,0 +1,339 @@
+package persistence;
+
+import model.Client;
+import model.ModelChangeListener;
+import model.Movie;
+import model.Showtime;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes model changes to a {@link Store} in the background, so sign-ups and bookings do not
+ * wait for the store.
+ * <p>
+ * Callbacks only remember which client, movie or showtime changed; repeated changes to the
+ * same one are coalesced, and its current state is read when the batch is written, so a
+ * showtime booked a hundred times between two writes is saved once. A writer thread saves
+ * the pending entries with {@code saveAll} and flushes the store when {@code batchSize}
+ * entries are pending or the oldest has waited {@code interval}, whichever comes first.
+ * <p>
+ * At most {@code capacity} distinct entries are pending; a change to a new entry beyond that
+ * blocks until the writer catches up. A failed write is logged and retried after one
+ * interval, keeping newer pending changes.
+ * <p>
+ * On a crash the store misses at most the last interval plus one batch write. When the
+ * journal is enabled it holds those changes, and on the next start the store is synced with
+ * the recovered model: changed entries are saved and entries removed meanwhile are deleted.
+ */
+public class WriteBehindListener implements ModelChangeListener, AutoCloseable {
+
+    private final Store store;
+    private final int batchSize;
+    private final int capacity;
+    private final long intervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signalled when pending entries are taken by the writer. */
+    private final Condition notFull = lock.newCondition();
+    /** Signalled when the writer may have work: first entry, full batch, flush or close. */
+    private final Condition ready = lock.newCondition();
+    /** Signalled when a batch has been written. */
+    private final Condition written = lock.newCondition();
+
+    // Pending changes by key; a null value means removed. Guarded by lock.
+    private final Map<String, Client> clients = new HashMap<>();
+    private final Map<String, Movie> movies = new HashMap<>();
+    private final Map<Long, Showtime> showtimes = new HashMap<>();
+    private int pending;
+    /** When the oldest pending entry was added, from {@link System#nanoTime()}. */
+    private long oldestPending;
+    private long flushRequested;
+    private long flushCompleted;
+    private boolean lastWriteFailed;
+    private boolean closed;
+    private long coalesced;
+    private long stalls;
+    private Thread writer;
+
+    /**
+     * @param store store receiving the changes
+     * @param batchSize pending entries that trigger a write
+     * @param capacity most pending entries before changes block (&gt;= batchSize)
+     * @param interval longest time a change stays pending
+     */
+    public WriteBehindListener(Store store, int batchSize, int capacity, Duration interval) {
+        if (store == null) throw new IllegalArgumentException("Store cannot be null");
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+        if (capacity < batchSize) throw new IllegalArgumentException("Capacity cannot be below the batch size");
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        this.store = store;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Starts the writer thread. Changes received before are kept and written then.
+     */
+    public void start() {
+        lock.lock();
+        try {
+            if (writer != null) return;
+            writer = new Thread(this::run, "store-writer");
+            writer.setDaemon(true);
+            writer.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clientRegistered(Client client) {
+        put(clients, client.getUsername(), client);
+    }
+
+    @Override
+    public void clientUpdated(Client client) {
+        put(clients, client.getUsername(), client);
+    }
+
+    @Override
+    public void movieAdded(Movie movie) {
+        put(movies, movie.getId(), movie);
+    }
+
+    @Override
+    public void movieRemoved(Movie movie) {
+        put(movies, movie.getId(), null);
+    }
+
+    @Override
+    public void showtimeScheduled(Showtime showtime) {
+        put(showtimes, showtime.getId(), showtime);
+    }
+
+    @Override
+    public void showtimeUpdated(Showtime showtime) {
+        put(showtimes, showtime.getId(), showtime);
+    }
+
+    @Override
+    public void showtimeRemoved(Showtime showtime) {
+        put(showtimes, showtime.getId(), null);
+    }
+
+    @Override
+    public void seatsChanged(Showtime showtime, int delta, int[] seatIndexes, int version, int available) {
+        put(showtimes, showtime.getId(), showtime);
+    }
+
+    /** @return distinct entries waiting to be written */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return changes merged into an entry that was already pending */
+    public long getCoalescedCount() {
+        lock.lock();
+        try {
+            return coalesced;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return changes that had to wait because the queue was full */
+    public long getStallCount() {
+        lock.lock();
+        try {
+            return stalls;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes every pending change now and waits until the store has flushed it.
+     * @throws IOException if the write failed
+     * @throws IllegalStateException if the writer is not started
+     */
+    public void flush() throws IOException {
+        lock.lock();
+        try {
+            if (writer == null) throw new IllegalStateException("Writer has not been started");
+            long ticket = ++flushRequested;
+            ready.signal();
+            while (flushCompleted < ticket && writer.isAlive()) written.awaitUninterruptibly();
+            if (lastWriteFailed) throw new IOException("Could not write to the " + store.getName() + " store");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the pending changes and stops the writer; the store stays open. Changes received
+     * afterwards are not written.
+     */
+    @Override
+    public void close() {
+        start();
+        Thread thread;
+        lock.lock();
+        try {
+            closed = true;
+            ready.signal();
+            notFull.signalAll();
+            thread = writer;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <K, V> void put(Map<K, V> map, K key, V value) {
+        lock.lock();
+        try {
+            if (map.containsKey(key)) {
+                map.put(key, value);
+                coalesced++;
+                return;
+            }
+            if (pending >= capacity && !closed) {
+                stalls++;
+                do notFull.awaitUninterruptibly(); while (pending >= capacity && !closed);
+                // The writer took the entry while this thread waited, or it was never pending.
+                if (map.containsKey(key)) {
+                    map.put(key, value);
+                    coalesced++;
+                    return;
+                }
+            }
+            map.put(key, value);
+            if (pending++ == 0) {
+                oldestPending = System.nanoTime();
+                ready.signal();
+            } else if (pending == batchSize) {
+                ready.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            Map<String, Client> clientBatch;
+            Map<String, Movie> movieBatch;
+            Map<Long, Showtime> showtimeBatch;
+            long ticket;
+            boolean stopping;
+            lock.lock();
+            try {
+                while (!closed && flushRequested == flushCompleted && !batchDue()) {
+                    long wait = pending == 0 ? intervalNanos : intervalNanos - (System.nanoTime() - oldestPending);
+                    awaitReady(wait);
+                }
+                stopping = closed;
+                ticket = flushRequested;
+                clientBatch = new HashMap<>(clients);
+                movieBatch = new HashMap<>(movies);
+                showtimeBatch = new HashMap<>(showtimes);
+                clients.clear();
+                movies.clear();
+                showtimes.clear();
+                pending = 0;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            boolean ok = write(clientBatch, movieBatch, showtimeBatch);
+
+            lock.lock();
+            try {
+                flushCompleted = ticket;
+                lastWriteFailed = !ok;
+                written.signalAll();
+                if (stopping) {
+                    if (!ok) System.out.printf("Dropped %d unwritten store changes on close%n",
+                            clientBatch.size() + movieBatch.size() + showtimeBatch.size());
+                    return;
+                }
+                if (!ok) {
+                    // Keep newer changes that arrived during the failed write.
+                    requeue(clients, clientBatch);
+                    requeue(movies, movieBatch);
+                    requeue(showtimes, showtimeBatch);
+                    awaitReady(intervalNanos);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** @return whether pending entries should be written now; caller holds the lock */
+    private boolean batchDue() {
+        return pending >= batchSize || (pending > 0 && System.nanoTime() - oldestPending >= intervalNanos);
+    }
+
+    private void awaitReady(long nanos) {
+        try {
+            ready.awaitNanos(nanos);
+        } catch (InterruptedException e) {
+            closed = true;
+        }
+    }
+
+    private <K, V> void requeue(Map<K, V> target, Map<K, V> failed) {
+        for (Map.Entry<K, V> entry : failed.entrySet()) {
+            if (target.containsKey(entry.getKey())) continue;
+            target.put(entry.getKey(), entry.getValue());
+            if (pending++ == 0) oldestPending = System.nanoTime();
+        }
+    }
+
+    /** Saves one batch and flushes the store; {@code false} if any of it failed. */
+    private boolean write(Map<String, Client> clientBatch, Map<String, Movie> movieBatch, Map<Long, Showtime> showtimeBatch) {
+        try {
+            if (!clientBatch.isEmpty()) store.clients().saveAll(clientBatch.values());
+            List<Movie> savedMovies = new ArrayList<>();
+            for (Movie movie : movieBatch.values()) if (movie != null) savedMovies.add(movie);
+            if (!savedMovies.isEmpty()) store.movies().saveAll(savedMovies);
+
+            List<ShowtimeRow> rows = new ArrayList<>(showtimeBatch.size());
+            for (Map.Entry<Long, Showtime> entry : showtimeBatch.entrySet()) {
+                if (entry.getValue() != null) rows.add(ShowtimeRow.of(entry.getValue()));
+                else store.showtimes().delete(entry.getKey());
+            }
+            if (!rows.isEmpty()) store.showtimes().saveAll(rows);
+
+            for (Map.Entry<String, Movie> entry : movieBatch.entrySet()) {
+                if (entry.getValue() == null) store.movies().delete(entry.getKey());
+            }
+            store.flush();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Could not write to the " + store.getName() + " store: " + e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package Helper;
+
+import model.Client;
+import model.Movie;
+import model.Showtime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Equal seeds must give equal datasets, so a load test can be repeated against the same data.
+ */
+class LargeDatasetGeneratorTest {
+
+    private static LargeDatasetGenerator generator(long seed) {
+        return new LargeDatasetGenerator(seed, 3, 40, 200, 2_000);
+    }
+
+    /** Every batch of every site, generated site by site on this thread. */
+    private static List<SampleDataHelper.Data> batches(LargeDatasetGenerator generator) {
+        List<SampleDataHelper.Data> batches = new ArrayList<>();
+        for (int site = 0; site < generator.getSites(); site++) generator.generateSite(site, batches::add);
+        return batches;
+    }
+
+    private static List<String> movieIds(LargeDatasetGenerator generator) {
+        return generator.getMovies().stream().map(Movie::getId).toList();
+    }
+
+    private static List<String> usernames(List<SampleDataHelper.Data> batches) {
+        return batches.stream().flatMap(batch -> batch.getClients().stream()).map(Client::getUsername).toList();
+    }
+
+    /** Showtime ids come from the running process, so showtimes are compared by what they hold. */
+    private static List<String> showtimes(List<SampleDataHelper.Data> batches) {
+        return batches.stream().flatMap(batch -> batch.getShowtimes().stream())
+                .map(st -> st.getMovie().getId() + " " + st.getDate() + " " + st.getTime() + " " + st.getRoom()
+                        + " " + st.getAvailableSeats() + "/" + st.getTotalCapacity())
+                .toList();
+    }
+
+    @Test
+    void equalSeedsGiveEqualDatasets() {
+        LargeDatasetGenerator first = generator(42);
+        LargeDatasetGenerator second = generator(42);
+        assertEquals(movieIds(first), movieIds(second));
+        assertEquals(first.getMovies().stream().map(Movie::getTitle).toList(),
+                second.getMovies().stream().map(Movie::getTitle).toList());
+
+        List<SampleDataHelper.Data> firstBatches = batches(first);
+        List<SampleDataHelper.Data> secondBatches = batches(second);
+        assertEquals(usernames(firstBatches), usernames(secondBatches));
+        assertEquals(showtimes(firstBatches), showtimes(secondBatches));
+        assertEquals(2_000, showtimes(firstBatches).size());
+
+        Showtime earliest = firstBatches.stream().flatMap(batch -> batch.getShowtimes().stream())
+                .min((a, b) -> a.getDate().compareTo(b.getDate())).orElseThrow();
+        assertEquals(LargeDatasetGenerator.DEFAULT_FIRST_DAY, earliest.getDate());
+    }
+
+    @Test
+    void differentSeedsGiveDifferentDatasets() {
+        LargeDatasetGenerator first = generator(42);
+        LargeDatasetGenerator other = generator(43);
+        assertFalse(movieIds(first).equals(movieIds(other)));
+        assertFalse(showtimes(batches(first)).equals(showtimes(batches(other))));
+    }
+}
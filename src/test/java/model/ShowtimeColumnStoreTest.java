@@ -0,0 +1,152 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rows copied into the column store read back as the showtimes they came from, scans stay
+ * consistent while rows are appended, and archiving copies each past showtime once.
+ */
+class ShowtimeColumnStoreTest {
+
+    private static final Movie FIRST = Movie.restore("column-first", "First", "Drama", 120, "PG");
+    private static final Movie SECOND = Movie.restore("column-second", "Second", "Comedy", 95, "G");
+
+    /** Showtime {@code i} of a varied schedule: alternating movies, four rooms, sold seats. */
+    private static Showtime showtime(int i) {
+        Movie movie = i % 2 == 0 ? FIRST : SECOND;
+        Showtime showtime = new Showtime(movie, LocalDate.of(2031, 1, 1).plusDays(i / 8),
+                String.format("%02d:%02d", 10 + i % 8, i % 4 * 15), "Hall " + i % 4, 50 + i % 3 * 25);
+        if (i % 5 != 0) showtime.reserve(1 + i % 40);
+        return showtime;
+    }
+
+    @Test
+    void rowsReadBackAsTheOriginalShowtimes() {
+        ShowtimeColumnStore store = new ShowtimeColumnStore();
+        List<Showtime> originals = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) originals.add(showtime(i));
+        store.appendAll(originals);
+
+        assertEquals(originals.size(), store.size());
+        long soldFirst = 0;
+        long soldSecond = 0;
+        ShowtimeColumnStore.Cursor cursor = store.cursor();
+        for (int row = 0; row < originals.size(); row++) {
+            Showtime original = originals.get(row);
+            cursor.moveTo(row);
+            assertEquals(original.getDate(), cursor.getDate());
+            assertEquals(original.getLocalTime(), cursor.getLocalTime());
+            assertEquals(original.getRoom(), cursor.getRoom());
+            assertEquals(original.getMovie(), cursor.getMovie());
+            assertEquals(original.getTotalCapacity(), cursor.getTotalCapacity());
+            assertEquals(original.getAvailableSeats(), cursor.getAvailableSeats());
+
+            Showtime copy = store.toShowtime(row);
+            assertEquals(original, copy);
+            assertEquals(original.getAvailableSeats(), copy.getAvailableSeats());
+            int sold = original.getTotalCapacity() - original.getAvailableSeats();
+            if (original.getMovie() == FIRST) soldFirst += sold; else soldSecond += sold;
+        }
+        assertEquals(Map.of(FIRST, soldFirst, SECOND, soldSecond), store.getSoldSeatsByMovie());
+
+        assertTrue(cursor.moveTo(0).reserve(1));
+        assertEquals(originals.get(0).getAvailableSeats() - 1, store.toShowtime(0).getAvailableSeats());
+        assertFalse(cursor.reserve(1_000));
+    }
+
+    @Test
+    void scansDuringAppendsSeeOnlyCompleteRows() throws Exception {
+        ShowtimeColumnStore store = new ShowtimeColumnStore();
+        // Rows span two chunks, and every 16th brings a new movie, so the chunk array and the
+        // dictionary both grow while they are being scanned.
+        int rows = 70_000;
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> scanners = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int t = 0; t < 3; t++) {
+                scanners.add(executor.submit(() -> {
+                    start.await();
+                    int scans = 0;
+                    long lastSold = 0;
+                    while (!done.get() || scans == 0) {
+                        long sold = 0;
+                        for (long perMovie : store.getSoldSeatsByMovie().values()) sold += perMovie;
+                        // Rows are only added and never sold afterwards, so the total never shrinks.
+                        assertTrue(sold >= lastSold);
+                        lastSold = sold;
+                        int[] seen = {0};
+                        store.forEach(cursor -> {
+                            assertEquals(cursor.getRow() % 7, cursor.getTotalCapacity() - cursor.getAvailableSeats());
+                            assertEquals("movie-" + cursor.getRow() / 16, cursor.getMovie().getId());
+                            seen[0]++;
+                        });
+                        scans++;
+                    }
+                    return scans;
+                }));
+            }
+            start.countDown();
+            Movie movie = null;
+            for (int row = 0; row < rows; row++) {
+                if (row % 16 == 0) movie = Movie.restore("movie-" + row / 16, "Movie " + row, "Drama", 90, "PG");
+                Showtime showtime = new Showtime(movie, LocalDate.of(2031, 1, 1), "19:30", "Hall", 100);
+                if (row % 7 > 0) showtime.reserve(row % 7);
+                store.append(showtime);
+            }
+            done.set(true);
+            for (Future<Integer> scanner : scanners) assertTrue(scanner.get() > 0);
+        }
+        assertEquals(rows, store.size());
+        assertEquals((rows + 15) / 16, store.getSoldSeatsByMovie().size());
+    }
+
+    @Test
+    void archivingCopiesEachPastShowtimeOnce() {
+        Movie movie = Movie.restore("column-archive", "Archive", "Drama", 60, "PG");
+        List<Showtime> scheduled = new ArrayList<>();
+        for (int day = 1; day <= 4; day++) {
+            Showtime showtime = new Showtime(movie, LocalDate.of(2040, 1, day), "18:00", "Archive Hall", 80);
+            showtime.reserve(day);
+            assertTrue(Showtime.register(showtime));
+            scheduled.add(showtime);
+        }
+        try {
+            ShowtimeColumnStore store = new ShowtimeColumnStore();
+            store.archiveBefore(LocalDate.of(2040, 1, 3));
+            assertEquals(List.of(scheduled.get(0), scheduled.get(1)), rowsOf(store, movie));
+            assertEquals(0, store.archiveBefore(LocalDate.of(2040, 1, 3)));
+
+            assertEquals(2, store.archiveBefore(LocalDate.of(2040, 1, 5)));
+            List<Showtime> archived = rowsOf(store, movie);
+            assertEquals(scheduled, archived);
+            assertEquals(77, archived.get(2).getAvailableSeats());
+            // Archiving copies; the live schedule still has every showtime.
+            assertEquals(4, Showtime.getShowtimesForMovie(movie).size());
+        } finally {
+            for (Showtime showtime : scheduled) Showtime.unregister(showtime);
+        }
+    }
+
+    private static List<Showtime> rowsOf(ShowtimeColumnStore store, Movie movie) {
+        List<Showtime> rows = new ArrayList<>();
+        store.forEach(cursor -> {
+            if (cursor.getMovie().equals(movie)) rows.add(cursor.toShowtime());
+        });
+        return rows;
+    }
+}
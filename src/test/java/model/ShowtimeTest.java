@@ -0,0 +1,227 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seat reservations under contention: many buyers on few showtimes must never oversell, and
+ * the remaining count must always match what the buyers hold.
+ */
+class ShowtimeTest {
+
+    private static final int THREADS = 64;
+    private static final int OPERATIONS_PER_THREAD = 5_000;
+
+    private static final Movie MOVIE = Movie.restore("test-movie", "Test", "Drama", 120, "PG");
+    /** Showtimes compare by movie, date, time and room, so every test showtime gets its own room. */
+    private static final AtomicInteger ROOMS = new AtomicInteger();
+
+    private static Showtime showtime(int capacity) {
+        return new Showtime(MOVIE, LocalDate.of(2030, 1, 1), "19:30", "R" + ROOMS.incrementAndGet(), capacity);
+    }
+
+    /**
+     * Runs one task per thread, all released at once.
+     * @return the tasks' results
+     */
+    private static <T> List<T> runConcurrently(IntFunction<T> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.apply(thread);
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) results.add(future.get());
+            return results;
+        }
+    }
+
+    @Test
+    void reserveReleaseAndGroupReservationsKeepCountsConsistent() throws Exception {
+        Showtime first = showtime(500);
+        Showtime second = showtime(300);
+        AtomicInteger oversold = new AtomicInteger();
+        long begin = System.nanoTime();
+
+        // Each thread only releases seats it holds, so the final counts must add up exactly.
+        List<int[]> held = runConcurrently(thread -> {
+            SplittableRandom random = new SplittableRandom(thread);
+            int heldFirst = 0;
+            int heldSecond = 0;
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                switch (random.nextInt(4)) {
+                    case 0 -> {
+                        int seats = 1 + random.nextInt(4);
+                        if (first.reserve(seats)) heldFirst += seats;
+                    }
+                    case 1 -> {
+                        Map<Showtime, Integer> group = new LinkedHashMap<>();
+                        group.put(first, 1);
+                        group.put(second, 2);
+                        if (Showtime.tryReserveAll(group)) {
+                            heldFirst += 1;
+                            heldSecond += 2;
+                        }
+                    }
+                    case 2 -> {
+                        if (heldFirst > 0) {
+                            int seats = 1 + random.nextInt(heldFirst);
+                            first.release(seats);
+                            heldFirst -= seats;
+                        }
+                    }
+                    default -> {
+                        if (heldSecond > 0) {
+                            second.release(heldSecond);
+                            heldSecond = 0;
+                        }
+                    }
+                }
+                if (first.getAvailableSeats() < 0 || second.getAvailableSeats() < 0) oversold.incrementAndGet();
+            }
+            return new int[] {heldFirst, heldSecond};
+        });
+
+        long elapsed = System.nanoTime() - begin;
+        System.out.printf("%d threads: %.0f seat operations/s%n", THREADS,
+                THREADS * (double) OPERATIONS_PER_THREAD / (elapsed / 1e9));
+        int totalFirst = held.stream().mapToInt(h -> h[0]).sum();
+        int totalSecond = held.stream().mapToInt(h -> h[1]).sum();
+        assertEquals(0, oversold.get(), "available seats went below zero");
+        assertEquals(500 - totalFirst, first.getAvailableSeats());
+        assertEquals(300 - totalSecond, second.getAvailableSeats());
+        assertEquals(totalFirst, first.getReservedSeats());
+    }
+
+    @Test
+    void concurrentReservationsStopExactlyAtCapacity() throws Exception {
+        Showtime showtime = showtime(1_000);
+        List<Integer> sold = runConcurrently(thread -> {
+            int seats = 0;
+            for (int i = 0; i < 100; i++) if (showtime.reserve(1)) seats++;
+            return seats;
+        });
+        assertEquals(1_000, sold.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(0, showtime.getAvailableSeats());
+        assertFalse(showtime.reserve(1));
+    }
+
+    @Test
+    void failedGroupReservationTakesNothing() throws Exception {
+        Showtime roomy = showtime(10_000);
+        Showtime tight = showtime(THREADS / 2);
+        List<Boolean> results = runConcurrently(thread -> {
+            Map<Showtime, Integer> group = new LinkedHashMap<>();
+            group.put(roomy, 3);
+            group.put(tight, 1);
+            return Showtime.tryReserveAll(group);
+        });
+        long succeeded = results.stream().filter(Boolean::booleanValue).count();
+        assertEquals(THREADS / 2, succeeded);
+        assertEquals(0, tight.getAvailableSeats());
+        assertEquals(10_000 - 3 * succeeded, roomy.getAvailableSeats());
+    }
+
+    @Test
+    void concurrentSeatClaimsNeverShareASeat() throws Exception {
+        Showtime showtime = showtime(400);
+        List<List<int[]>> claims = runConcurrently(thread -> {
+            List<int[]> mine = new ArrayList<>();
+            int releases = 0;
+            int[] seats;
+            while ((seats = showtime.reserveBestAvailable(2)) != null) {
+                mine.add(seats);
+                // Give a few back so releases race with claims too.
+                if (mine.size() % 3 == 0 && releases++ < 5) showtime.releaseSeats(mine.remove(mine.size() - 1));
+            }
+            return mine;
+        });
+        BitSet taken = new BitSet();
+        int count = 0;
+        for (List<int[]> mine : claims) {
+            for (int[] seats : mine) {
+                for (int seat : seats) {
+                    assertFalse(taken.get(seat), "seat " + seat + " was claimed twice");
+                    taken.set(seat);
+                    count++;
+                }
+            }
+        }
+        assertEquals(400 - count, showtime.getAvailableSeats());
+        assertEquals(showtime.getAvailableSeats(), showtime.getSeatMap().getFreeSeatCount());
+        assertTrue(showtime.getAvailableSeats() < 2 || showtime.getSeatMap().findBestAdjacent(2) == null);
+    }
+
+    /** A seat change as a journal would record it. */
+    private record SeatChange(int delta, int[] seats, int version, int available) { }
+
+    @Test
+    void seatChangesReplayedInVersionOrderRebuildTheSameSeatMap() throws Exception {
+        Showtime showtime = new Showtime(MOVIE, LocalDate.of(2031, 1, 1), "19:30", "R" + ROOMS.incrementAndGet(), 300);
+        ConcurrentLinkedQueue<SeatChange> journal = new ConcurrentLinkedQueue<>();
+        ModelChangeListener listener = new ModelChangeListener() {
+            @Override
+            public void seatsChanged(Showtime changed, int delta, int[] seatIndexes, int version, int available) {
+                if (changed == showtime) journal.add(new SeatChange(delta, seatIndexes, version, available));
+            }
+        };
+        assertTrue(Showtime.register(showtime));
+        ModelEvents.addListener(listener);
+        try {
+            runConcurrently(thread -> {
+                SplittableRandom random = new SplittableRandom(thread);
+                List<int[]> mine = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                    if (!mine.isEmpty() && random.nextInt(3) == 0) {
+                        showtime.releaseSeats(mine.remove(random.nextInt(mine.size())));
+                    } else {
+                        int[] seats = showtime.reserveBestAvailable(1 + random.nextInt(3));
+                        if (seats != null) mine.add(seats);
+                    }
+                }
+                return mine.size();
+            });
+        } finally {
+            ModelEvents.removeListener(listener);
+            Showtime.unregister(showtime);
+        }
+
+        List<SeatChange> ordered = new ArrayList<>(journal);
+        ordered.sort(Comparator.comparingInt(SeatChange::version));
+        Showtime replayed = showtime(300);
+        for (int i = 0; i < ordered.size(); i++) {
+            SeatChange change = ordered.get(i);
+            assertEquals(i + 1, change.version(), "every seat version is one recorded change");
+            assertTrue(replayed.applySeatChange(change.version(), change.available(), change.seats(), change.delta()));
+        }
+        assertEquals(showtime.getAvailableSeats(), replayed.getAvailableSeats());
+        assertArrayEquals(showtime.getSeatMap().toWords(), replayed.getSeatMap().toWords());
+        assertEquals(replayed.getAvailableSeats(), replayed.getSeatMap().getFreeSeatCount());
+    }
+}
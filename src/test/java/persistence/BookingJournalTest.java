@@ -0,0 +1,182 @@
+package persistence;
+
+import model.Client;
+import model.Showtime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Journal round trips, crash recovery of a torn tail, and replay of the records into a
+ * {@link RecoveredModel}.
+ */
+class BookingJournalTest {
+
+    private static final long SHOWTIME_ID = 1_000_001L;
+
+    @TempDir
+    Path dir;
+
+    /** A movie, one showtime for it, and three bookings, one of them cancelled. */
+    private static List<JournalRecord> bookings() {
+        return List.of(
+                new JournalRecord.ClientRegistered("alice", "hash", "alice@example.com"),
+                new JournalRecord.MovieAdded("movie-1", "Test", "Drama", 120, "PG"),
+                new JournalRecord.ShowtimeSaved(false, SHOWTIME_ID, "movie-1", LocalDate.of(2030, 1, 1).toEpochDay(),
+                        "19:30", "R1", 100, 0, 100),
+                new JournalRecord.SeatsChanged(SHOWTIME_ID, 2, new int[] {10, 11}, 1, 98),
+                new JournalRecord.SeatsChanged(SHOWTIME_ID, 3, new int[] {20, 21, 22}, 2, 95),
+                new JournalRecord.SeatsChanged(SHOWTIME_ID, -2, new int[] {10, 11}, 3, 97),
+                new JournalRecord.ClientUpdated("alice", "alice@example.org"));
+    }
+
+    private Path writeJournal(List<JournalRecord> records) throws Exception {
+        Path file = dir.resolve(BookingJournal.FILE_NAME);
+        try (BookingJournal journal = BookingJournal.open(file, FsyncPolicy.EVERY_BATCH, Duration.ZERO)) {
+            List<CompletableFuture<Long>> appended = new ArrayList<>();
+            for (JournalRecord record : records) appended.add(journal.append(record));
+            for (CompletableFuture<Long> future : appended) future.get();
+            assertEquals(records.size(), journal.getRecordCount());
+        }
+        return file;
+    }
+
+    private static List<JournalRecord> readAll(Path file) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        BookingJournal.read(file, 0, records::add);
+        return records;
+    }
+
+    private static void assertSameRecords(List<JournalRecord> expected, List<JournalRecord> actual) {
+        assertEquals(expected.size(), actual.size());
+        // Compare encodings: SeatsChanged holds an array, so record equality is by reference.
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(JournalRecord.encode(expected.get(i)), JournalRecord.encode(actual.get(i)));
+        }
+    }
+
+    @Test
+    void appendedRecordsReadBackInOrder() throws Exception {
+        Path file = writeJournal(bookings());
+        List<JournalRecord> read = new ArrayList<>();
+        long end = BookingJournal.read(file, 0, read::add);
+        assertSameRecords(bookings(), read);
+        assertEquals(Files.size(file), end);
+    }
+
+    @Test
+    void tornTailIsDroppedOnOpen() throws Exception {
+        Path file = writeJournal(bookings());
+        long validEnd = Files.size(file);
+        // A crash in the middle of a write: a frame header promising more bytes than follow.
+        ByteBuffer torn = ByteBuffer.allocate(11).putInt(64).putInt(0).put(new byte[] {8, 0, 0});
+        Files.write(file, torn.array(), StandardOpenOption.APPEND);
+
+        assertEquals(validEnd, BookingJournal.read(file, 0, record -> { }));
+        JournalRecord next = new JournalRecord.ShowtimeRemoved(SHOWTIME_ID);
+        try (BookingJournal journal = BookingJournal.open(file, FsyncPolicy.EVERY_BATCH, Duration.ZERO)) {
+            assertEquals(validEnd, journal.getPosition());
+            journal.append(next).get();
+        }
+        List<JournalRecord> expected = new ArrayList<>(bookings());
+        expected.add(next);
+        assertSameRecords(expected, readAll(file));
+    }
+
+    @Test
+    void appendAfterCloseFails() throws Exception {
+        BookingJournal journal = BookingJournal.open(dir.resolve(BookingJournal.FILE_NAME), FsyncPolicy.NONE, Duration.ZERO);
+        journal.close();
+        CompletableFuture<Long> late = journal.append(new JournalRecord.ShowtimeRemoved(SHOWTIME_ID));
+        assertThrows(ExecutionException.class, late::get);
+    }
+
+    @Test
+    void listenerReportsDurableChangesAndAFailedJournal() throws Exception {
+        BookingJournal journal = BookingJournal.open(dir.resolve(BookingJournal.FILE_NAME), FsyncPolicy.EVERY_BATCH, Duration.ZERO);
+        JournalingListener listener = new JournalingListener(journal);
+        Client alice = Client.createDetached("alice", "hash", "alice@example.com");
+        listener.clientUpdated(alice);
+        listener.awaitDurable();
+        assertEquals(1, journal.getRecordCount());
+        assertNull(listener.getFailure());
+
+        journal.close();
+        listener.clientUpdated(alice);
+        assertThrows(IOException.class, listener::awaitDurable);
+        assertNotNull(listener.getFailure());
+        // The failure stays visible to threads that did not make the failed change.
+        assertThrows(IOException.class, listener::awaitDurable);
+    }
+
+    @Test
+    void replayRebuildsSeatsAndIsIdempotent() throws Exception {
+        Path file = writeJournal(bookings());
+        RecoveredModel model = new RecoveredModel(0);
+        BookingJournal.read(file, 0, model::apply);
+        // A snapshot taken part-way through the journal sees some records a second time.
+        BookingJournal.read(file, 0, model::apply);
+        model.applySeatChanges();
+
+        assertEquals(1, model.getClientCount());
+        assertEquals(1, model.getMovieCount());
+        assertEquals(1, model.getShowtimeCount());
+        assertEquals(0, model.getUnresolvedCount());
+        Showtime showtime = model.findShowtime(SHOWTIME_ID);
+        assertNotNull(showtime);
+        assertEquals(97, showtime.getAvailableSeats());
+        assertEquals(3, showtime.getSeatVersion());
+        for (int seat : new int[] {20, 21, 22}) assertTrue(showtime.getSeatMap().snapshot().get(seat));
+        assertFalse(showtime.getSeatMap().snapshot().get(10));
+        assertEquals(97, showtime.getSeatMap().getFreeSeatCount());
+    }
+
+    @Test
+    void seatRecordsJournaledOutOfOrderReplayInVersionOrder() {
+        RecoveredModel model = new RecoveredModel(0);
+        for (JournalRecord record : bookings().subList(0, 3)) model.apply(record);
+        // Seat 5 is sold (v1) and released (v2); seat 7 is sold (v3), released (v4) and sold
+        // again (v5). The records reach the journal out of version order.
+        model.apply(new JournalRecord.SeatsChanged(SHOWTIME_ID, -1, new int[] {5}, 2, 100));
+        model.apply(new JournalRecord.SeatsChanged(SHOWTIME_ID, 1, new int[] {5}, 1, 99));
+        model.apply(new JournalRecord.SeatsChanged(SHOWTIME_ID, 1, new int[] {7}, 3, 99));
+        model.apply(new JournalRecord.SeatsChanged(SHOWTIME_ID, 1, new int[] {7}, 5, 99));
+        model.apply(new JournalRecord.SeatsChanged(SHOWTIME_ID, -1, new int[] {7}, 4, 100));
+        model.applySeatChanges();
+
+        Showtime showtime = model.findShowtime(SHOWTIME_ID);
+        assertFalse(showtime.getSeatMap().snapshot().get(5));
+        assertTrue(showtime.getSeatMap().snapshot().get(7));
+        assertEquals(5, showtime.getSeatVersion());
+        assertEquals(99, showtime.getAvailableSeats());
+        assertEquals(showtime.getAvailableSeats(), showtime.getSeatMap().getFreeSeatCount());
+    }
+
+    @Test
+    void recordsForUnknownShowtimesAreCountedNotApplied() {
+        RecoveredModel model = new RecoveredModel(0);
+        model.apply(new JournalRecord.SeatsChanged(SHOWTIME_ID, 1, new int[] {0}, 1, 99));
+        model.apply(new JournalRecord.ShowtimeSaved(false, SHOWTIME_ID, "missing-movie", 0, "19:30", "R1", 100, 0, 100));
+        assertEquals(2, model.getUnresolvedCount());
+        assertEquals(0, model.getShowtimeCount());
+    }
+}
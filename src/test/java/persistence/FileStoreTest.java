@@ -0,0 +1,122 @@
+package persistence;
+
+import model.Client;
+import model.Movie;
+import model.Room;
+import model.Showtime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Saves, deletes and lookups through the in-memory and file stores, and a file store read
+ * back after a restart.
+ */
+class FileStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static ShowtimeRow row(long id, String movieId, int available) {
+        return new ShowtimeRow(id, movieId, LocalDate.of(2030, 1, 1).plusDays(id), "19:30", "R1",
+                100, 100 - available, available, new long[] {id, -1L});
+    }
+
+    /** Fills a store with two movies, five showtimes and a client, then changes some of it. */
+    private static void fill(Store store) {
+        store.clients().save(Client.createDetached("alice", "hash", "alice@example.com"));
+        store.rooms().save(new Room("R1", "Main Hall", 100));
+        store.movies().save(Movie.restore("m1", "First", "Drama", 120, "PG"));
+        store.movies().save(Movie.restore("m2", "Second", "Comedy", 95, "G"));
+        List<ShowtimeRow> rows = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) rows.add(row(id, id % 2 == 0 ? "m2" : "m1", 100));
+        store.showtimes().saveAll(rows);
+
+        store.showtimes().save(row(3, "m1", 60));
+        store.showtimes().delete(5L);
+        store.movies().save(Movie.restore("m2", "Second (Director's Cut)", "Comedy", 110, "G"));
+        store.clients().save(Client.createDetached("alice", "hash", "alice@example.org"));
+    }
+
+    private static void assertFilled(Store store) {
+        assertEquals(1, store.clients().count());
+        assertEquals("alice@example.org", store.clients().find("alice").getEmail());
+        assertEquals(100, store.rooms().find("R1").getCapacity());
+        assertEquals("Second (Director's Cut)", store.movies().find("m2").getTitle());
+        assertEquals(4, store.showtimes().count());
+        assertNull(store.showtimes().find(5L));
+
+        ShowtimeRow changed = store.showtimes().find(3L);
+        assertNotNull(changed);
+        assertEquals(60, changed.available());
+        assertEquals(40, changed.seatVersion());
+        assertArrayEquals(new long[] {3, -1L}, changed.seatWords());
+        assertEquals(2, store.showtimes().findByMovie("m1").size());
+        assertEquals(2, store.showtimes().findByMovie("m2").size());
+        assertEquals(0, store.showtimes().findByMovie("missing").size());
+    }
+
+    @Test
+    void memoryStoreKeepsLatestVersions() throws IOException {
+        try (Store store = new MemoryStore()) {
+            fill(store);
+            assertFilled(store);
+        }
+    }
+
+    @Test
+    void fileStoreRoundTripsThroughItsLog() throws IOException {
+        try (Store store = FileStore.open(dir, FsyncPolicy.EVERY_BATCH)) {
+            fill(store);
+            store.flush();
+            assertFilled(store);
+        }
+        try (Store reopened = FileStore.open(dir, FsyncPolicy.EVERY_BATCH)) {
+            assertFilled(reopened);
+        }
+    }
+
+    @Test
+    void fileStoreReportsAFailedLog() throws IOException {
+        Store store = FileStore.open(dir, FsyncPolicy.NONE);
+        store.close();
+        store.movies().save(Movie.restore("m1", "First", "Drama", 120, "PG"));
+        assertThrows(IOException.class, store::flush);
+        assertThrows(IllegalStateException.class, () -> store.movies().save(Movie.restore("m2", "Second", "Comedy", 95, "G")));
+        assertNull(store.movies().find("m2"));
+    }
+
+    @Test
+    void syncSavesChangesAndDeletesWhatTheModelNoLongerHas() throws IOException {
+        try (Store store = FileStore.open(dir, FsyncPolicy.NONE)) {
+            fill(store);
+            // The model after a crash the store missed: m2 and all its old showtimes are gone.
+            Movie first = Movie.restore("m1", "First", "Drama", 120, "PG");
+            Showtime kept = Showtime.restore(100, first, LocalDate.of(2030, 2, 1), "20:00", "R1", 100, 0, 100);
+            kept.reserve(2);
+            List<Showtime> showtimes = List.of(kept);
+            List<Client> clients = List.of(Client.createDetached("alice", "hash", "alice@example.org"));
+            List<Room> rooms = List.of(new Room("R1", "Main Hall", 100));
+
+            int[] changes = Persistence.sync(store, clients, rooms, List.of(first), showtimes);
+            assertArrayEquals(new int[] {1, 5}, changes);
+            assertNull(store.movies().find("m2"));
+            assertEquals(1, store.showtimes().count());
+            assertEquals(98, store.showtimes().find(kept.getId()).available());
+
+            // Nothing changed since, so nothing is written again.
+            assertArrayEquals(new int[] {0, 0}, Persistence.sync(store, clients, rooms, List.of(first), showtimes));
+        }
+    }
+}